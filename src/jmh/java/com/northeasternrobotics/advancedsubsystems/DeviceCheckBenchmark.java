@@ -0,0 +1,89 @@
+package com.northeasternrobotics.advancedsubsystems;
+
+import com.northeasternrobotics.advancedsubsystems.selfcheck.SelfCheckingSimDevice;
+import edu.wpi.first.hal.HAL;
+import edu.wpi.first.wpilibj2.command.CommandBase;
+import edu.wpi.first.wpilibj2.command.Commands;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Measures one device check the way the scheduler runs it: the device reporting into its
+ * subsystem's fault sink through SelfCheckingBase, the debounce and diff in its DeviceFaultState,
+ * and recording its active faults in the subsystem's FaultRegistry.
+ *
+ * <p>Devices are SelfCheckingSimDevices with the fault kinds of each real device, so only the
+ * hardware read is simulated. Run with the gc profiler to confirm that a warmed up check
+ * allocates nothing, whether the device is healthy, stays faulted, or flaps between the two.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DeviceCheckBenchmark {
+    private static final Map<String, Function<String, SelfCheckingSimDevice>> DEVICE_TYPES = Map.ofEntries(
+            Map.entry("CANCoder", SelfCheckingSimDevice::canCoder),
+            Map.entry("CANCoderPro", SelfCheckingSimDevice::canCoderPro),
+            Map.entry("NavX", SelfCheckingSimDevice::navX),
+            Map.entry("PWMMotor", SelfCheckingSimDevice::pwmMotor),
+            Map.entry("PhoenixMotor", SelfCheckingSimDevice::phoenixMotor),
+            Map.entry("Pigeon2", SelfCheckingSimDevice::pigeon2),
+            Map.entry("Pigeon2Pro", SelfCheckingSimDevice::pigeon2Pro),
+            Map.entry("PigeonIMU", SelfCheckingSimDevice::pigeonIMU),
+            Map.entry("PneumaticsControlModule", SelfCheckingSimDevice::pneumaticsControlModule),
+            Map.entry("PowerChannel", SelfCheckingSimDevice::powerChannel),
+            Map.entry("PowerDistribution", SelfCheckingSimDevice::powerDistribution),
+            Map.entry("SparkMax", SelfCheckingSimDevice::sparkMax),
+            Map.entry("TalonFXPro", SelfCheckingSimDevice::talonFXPro));
+
+    @Param({"CANCoder", "CANCoderPro", "NavX", "PWMMotor", "PhoenixMotor", "Pigeon2", "Pigeon2Pro",
+            "PigeonIMU", "PneumaticsControlModule", "PowerChannel", "PowerDistribution", "SparkMax",
+            "TalonFXPro"})
+    public String device;
+
+    /**
+     * healthy reports nothing, faulted reports every fault kind on every check, and flapping
+     * alternates between the two so faults are raised and cleared
+     */
+    @Param({"healthy", "faulted", "flapping"})
+    public String state;
+
+    private AdvancedSubsystem subsystem;
+    private MonitoredDevice monitored;
+    private long faultBits;
+    private boolean flapping;
+    private long checks;
+    private double timestamp;
+
+    @Setup
+    public void setup() {
+        HAL.initialize(500, 0);
+        // The device is checked by the benchmark instead of the scheduler
+        subsystem = new AdvancedSubsystem((callback, period) -> {
+        }, "DeviceCheck" + device) {
+            @Override
+            protected CommandBase systemCheckCommand() {
+                return Commands.none();
+            }
+        };
+        SelfCheckingSimDevice simDevice = DEVICE_TYPES.get(device).apply(device);
+        // Bits without a fault kind are masked off by the device
+        faultBits = state.equals("healthy") ? 0L : -1L;
+        flapping = state.equals("flapping");
+        simDevice.setFaultSource(() -> flapping && (checks & 1) != 0 ? 0L : faultBits);
+        monitored = new MonitoredDevice(subsystem, simDevice, HealthScheduler.CHECK_PERIOD);
+        checks = 0;
+        timestamp = 0;
+    }
+
+    @Benchmark
+    public boolean checkDevice() {
+        checks++;
+        return subsystem.checkDevice(monitored, timestamp += HealthScheduler.LOOP_PERIOD);
+    }
+}
@@ -0,0 +1,63 @@
+package com.northeasternrobotics.advancedsubsystems;
+
+import com.northeasternrobotics.advancedsubsystems.AdvancedSubsystem.SystemStatus;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures recording faults into a subsystem's registry as the number of recorded faults grows.
+ *
+ * <p>The registry is benchmarked directly since constructing an AdvancedSubsystem needs the HAL
+ * and NetworkTables. Re-reporting a recorded fault should be constant time and allocation free;
+ * recording a new fault at capacity allocates one SubsystemFault and evicts the oldest.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FaultRegistryBenchmark {
+    @Param({"10", "100", "1000"})
+    public int faults;
+
+    private FaultRegistry registry;
+    private FaultDescriptor[] descriptors;
+    private int next;
+    private double timestamp;
+
+    @Setup
+    public void setup() {
+        registry = new FaultRegistry(Math.max(faults, FaultRegistry.DEFAULT_CAPACITY));
+        // Twice as many descriptors as the registry holds, so cycling through them always evicts
+        descriptors = new FaultDescriptor[Math.max(faults, FaultRegistry.DEFAULT_CAPACITY) * 2];
+        for (int i = 0; i < descriptors.length; i++) {
+            descriptors[i] = new FaultDescriptor("Device " + i, new FaultKind("Fault", i % 2 == 0));
+        }
+        for (int i = 0; i < faults; i++) {
+            registry.record(descriptors[i], 0);
+        }
+        next = 0;
+        timestamp = 0;
+    }
+
+    @Benchmark
+    public int recordExisting() {
+        registry.record(descriptors[next], timestamp += 1e-3);
+        next = (next + 1) % faults;
+        return registry.getVersion();
+    }
+
+    @Benchmark
+    public int recordNewAtCapacity() {
+        registry.record(descriptors[next], timestamp += 1e-3);
+        next = (next + 1) % descriptors.length;
+        return registry.getVersion();
+    }
+
+    @Benchmark
+    public SystemStatus getStatus() {
+        return registry.getStatus();
+    }
+}
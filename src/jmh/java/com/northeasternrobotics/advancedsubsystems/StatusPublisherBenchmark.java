@@ -0,0 +1,67 @@
+package com.northeasternrobotics.advancedsubsystems;
+
+import com.northeasternrobotics.advancedsubsystems.AdvancedSubsystem.SystemStatus;
+import edu.wpi.first.networktables.NetworkTableInstance;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures publishing a subsystem's status to NetworkTables, against a local instance so no
+ * server or client is needed. Publishing an unchanged status should cost next to nothing.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class StatusPublisherBenchmark {
+    @Param({"1", "10", "64"})
+    public int faults;
+
+    private NetworkTableInstance instance;
+    private StatusPublisher publisher;
+    private List<SubsystemFault> errorFaults;
+    private List<SubsystemFault> warningFaults;
+    private boolean flip;
+
+    @Setup
+    public void setup() {
+        instance = NetworkTableInstance.create();
+        publisher = new StatusPublisher(instance, "Benchmark");
+        errorFaults = createFaults(false);
+        warningFaults = createFaults(true);
+        publisher.publish(SystemStatus.ERROR, errorFaults);
+    }
+
+    private List<SubsystemFault> createFaults(boolean isWarning) {
+        List<SubsystemFault> list = new ArrayList<>(faults);
+        for (int i = 0; i < faults; i++) {
+            list.add(new SubsystemFault(new FaultDescriptor("Device " + i, new FaultKind("Fault", isWarning)), i));
+        }
+        return List.copyOf(list);
+    }
+
+    @TearDown
+    public void tearDown() {
+        instance.close();
+    }
+
+    @Benchmark
+    public void publishUnchanged() {
+        publisher.publish(SystemStatus.ERROR, errorFaults);
+    }
+
+    @Benchmark
+    public void publishChanged() {
+        flip = !flip;
+        if (flip) {
+            publisher.publish(SystemStatus.WARNING, warningFaults);
+        } else {
+            publisher.publish(SystemStatus.ERROR, errorFaults);
+        }
+    }
+}
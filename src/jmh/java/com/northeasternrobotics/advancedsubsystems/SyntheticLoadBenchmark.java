@@ -0,0 +1,131 @@
+package com.northeasternrobotics.advancedsubsystems;
+
+import com.northeasternrobotics.advancedsubsystems.selfcheck.SelfCheckingSimDevice;
+import edu.wpi.first.hal.HAL;
+import edu.wpi.first.wpilibj.simulation.SimHooks;
+import edu.wpi.first.wpilibj2.command.CommandBase;
+import edu.wpi.first.wpilibj2.command.Commands;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Measures one robot loop of health checks with many simulated devices spread across many
+ * subsystems, to find how far the scheduler scales before checks fall behind.
+ *
+ * <p>Simulated time is stepped by one loop period per invocation, so every invocation runs the
+ * checks that would be due in a real 20ms loop. Sample mode reports the loop time percentiles,
+ * and the {@link Counters} report the achieved check period and deferred checks next to them.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SyntheticLoadBenchmark {
+    private static final List<Function<String, SelfCheckingSimDevice>> DEVICE_TYPES = List.of(
+            SelfCheckingSimDevice::talonFXPro,
+            SelfCheckingSimDevice::sparkMax,
+            SelfCheckingSimDevice::canCoderPro,
+            SelfCheckingSimDevice::phoenixMotor,
+            SelfCheckingSimDevice::pigeon2Pro,
+            SelfCheckingSimDevice::powerDistribution);
+
+    @Param({"10", "50"})
+    public int subsystems;
+
+    @Param({"10", "20"})
+    public int devicesPerSubsystem;
+
+    /**
+     * The chance that a device reports a fault when it is checked
+     */
+    @Param({"0", "0.05"})
+    public double faultRate;
+
+    /**
+     * The cycle budget in seconds, 0 to check every due device no matter how long it takes
+     */
+    @Param({"0.0005", "0"})
+    public double cycleBudget;
+
+    private HealthScheduler scheduler;
+
+    @Setup
+    public void setup() {
+        HAL.initialize(500, 0);
+        SimHooks.pauseTiming();
+        scheduler = HealthScheduler.getInstance();
+        scheduler.setCycleBudget(cycleBudget > 0 ? cycleBudget : Double.MAX_VALUE);
+
+        SplittableRandom random = new SplittableRandom(0);
+        for (int s = 0; s < subsystems; s++) {
+            // The scheduler is run by the benchmark instead of a robot loop callback
+            AdvancedSubsystem subsystem = new AdvancedSubsystem((callback, period) -> {
+            }, "Load" + s) {
+                @Override
+                protected CommandBase systemCheckCommand() {
+                    return Commands.none();
+                }
+            };
+            for (int d = 0; d < devicesPerSubsystem; d++) {
+                SelfCheckingSimDevice device = DEVICE_TYPES.get(d % DEVICE_TYPES.size()).apply("Load" + s + "/Device" + d);
+                if (faultRate > 0) {
+                    device.setFaultSource(() -> random.nextDouble() < faultRate ? 1L : 0L);
+                }
+                subsystem.registerHardware(device);
+            }
+        }
+
+        // Measure steady state, not devices being brought up one by one
+        while (scheduler.getStartingDevices() > 0) {
+            step();
+        }
+        for (double t = 0; t < HealthScheduler.BOOT_GRACE_PERIOD; t += HealthScheduler.LOOP_PERIOD) {
+            step();
+        }
+    }
+
+    @Benchmark
+    public int loop(Counters counters) {
+        int deferred = step();
+        counters.deferredChecks += deferred;
+        return deferred;
+    }
+
+    private int step() {
+        SimHooks.stepTiming(HealthScheduler.LOOP_PERIOD);
+        scheduler.run();
+        return scheduler.getDeferredChecks();
+    }
+
+    /**
+     * How well the scheduler kept up during each iteration, written to the results with the
+     * loop times.
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Counters {
+        /**
+         * The checks deferred to a later cycle because a cycle ran out of budget, summed over
+         * every loop of the iteration
+         */
+        public long deferredChecks;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            deferredChecks = 0;
+        }
+
+        /**
+         * @return The check period the scheduler achieved at the end of the iteration, in seconds
+         */
+        public double achievedCheckPeriod() {
+            return HealthScheduler.getInstance().getAchievedCheckPeriod();
+        }
+    }
+}
@@ -0,0 +1,133 @@
+package com.northeasternrobotics.advancedsubsystems.selfcheck;
+
+import com.ctre.phoenix.ErrorCode;
+import com.northeasternrobotics.advancedsubsystems.FaultKind;
+import com.revrobotics.REVLibError;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the cost of checking one device for faults.
+ *
+ * <p>The vendor device classes need their native libraries and real hardware, so each device is
+ * replaced by a stand-in that reports the same fault kinds through the same SelfCheckingBase and
+ * vendor error paths, with the hardware read replaced by a fixed word and a sink that only counts.
+ * DeviceCheckBenchmark measures the same checks through a subsystem's debounce and fault registry.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SelfCheckBenchmark {
+    @Param({"CANCoder", "CANCoderPro", "NavX", "PWMMotor", "PhoenixMotor", "Pigeon2", "Pigeon2Pro",
+            "PigeonIMU", "PneumaticsControlModule", "PowerChannel", "PowerDistribution", "SparkMax",
+            "TalonFXPro"})
+    public String device;
+
+    @Param({"healthy", "faulted"})
+    public String state;
+
+    private SelfChecking checker;
+    private FaultSink sink;
+    private int reported;
+
+    @Setup
+    public void setup() {
+        boolean faulted = state.equals("faulted");
+        switch (device) {
+            case "CANCoder":
+                checker = phoenix5(SelfCheckingCANCoder.FAULT_KINDS, faulted);
+                break;
+            case "CANCoderPro":
+                checker = new StandIn(SelfCheckingCANCoderPro.FAULT_KINDS, faulted);
+                break;
+            case "NavX":
+                checker = new StandIn(SelfCheckingNavX.FAULT_KINDS, faulted);
+                break;
+            case "PWMMotor":
+                checker = new StandIn(SelfCheckingPWMMotor.FAULT_KINDS, faulted);
+                break;
+            case "PhoenixMotor":
+                checker = phoenix5(SelfCheckingPhoenixMotor.FAULT_KINDS, faulted);
+                break;
+            case "Pigeon2":
+                checker = phoenix5(SelfCheckingPigeon2.FAULT_KINDS, faulted);
+                break;
+            case "Pigeon2Pro":
+                checker = new StandIn(SelfCheckingPigeon2Pro.FAULT_KINDS, faulted);
+                break;
+            case "PigeonIMU":
+                checker = phoenix5(SelfCheckingPigeonIMU.FAULT_KINDS, faulted);
+                break;
+            case "PneumaticsControlModule":
+                checker = new StandIn(SelfCheckingPneumaticsControlModule.FAULT_KINDS, faulted);
+                break;
+            case "PowerChannel":
+                checker = new StandIn(SelfCheckingPowerChannel.FAULT_KINDS, faulted);
+                break;
+            case "PowerDistribution":
+                checker = new StandIn(SelfCheckingPowerDistribution.FAULT_KINDS, faulted);
+                break;
+            case "SparkMax":
+                checker = new StandInWithError<>(SelfCheckingSparkMax.FAULT_KINDS, faulted, EnumFaultDescriptors.forRev("SparkMax"),
+                        REVLibError.kOk, faulted ? REVLibError.kTimeout : REVLibError.kOk);
+                break;
+            case "TalonFXPro":
+                checker = new StandIn(SelfCheckingTalonFXPro.FAULT_KINDS, faulted);
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown device " + device);
+        }
+        sink = descriptor -> reported++;
+    }
+
+    private StandIn phoenix5(FaultKind[] kinds, boolean faulted) {
+        return new StandInWithError<>(kinds, faulted, EnumFaultDescriptors.forPhoenix(device),
+                ErrorCode.OK, faulted ? ErrorCode.CAN_MSG_STALE : ErrorCode.OK);
+    }
+
+    @Benchmark
+    public int checkForFaults() {
+        checker.checkForFaults(sink);
+        return reported;
+    }
+
+    private static class StandIn extends SelfCheckingBase {
+        private final long bits;
+
+        StandIn(FaultKind[] kinds, boolean faulted) {
+            super("StandIn", kinds);
+            this.bits = faulted && kinds.length > 0 ? -1L >>> (Long.SIZE - kinds.length) : 0L;
+        }
+
+        @Override
+        protected long readFaultBits() {
+            return bits;
+        }
+    }
+
+    private static class StandInWithError<E extends Enum<E>> extends StandIn {
+        private final EnumFaultDescriptors<E> errors;
+        private final E ok;
+        private final E lastError;
+
+        StandInWithError(FaultKind[] kinds, boolean faulted, EnumFaultDescriptors<E> errors, E ok, E lastError) {
+            super(kinds, faulted);
+            this.errors = errors;
+            this.ok = ok;
+            this.lastError = lastError;
+        }
+
+        @Override
+        public void checkForFaults(FaultSink sink) {
+            super.checkForFaults(sink);
+
+            if (lastError != ok) {
+                sink.report(errors.get(lastError));
+            }
+        }
+    }
+}
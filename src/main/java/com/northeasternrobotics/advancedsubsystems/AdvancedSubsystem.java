@@ -7,46 +7,95 @@ import com.ctre.phoenixpro.hardware.CANcoder;
 import com.kauailabs.navx.frc.AHRS;
 import com.northeasternrobotics.advancedsubsystems.selfcheck.*;
 import com.revrobotics.CANSparkMax;
+import edu.wpi.first.util.datalog.DataLog;
 import edu.wpi.first.wpilibj.PneumaticsControlModule;
 import edu.wpi.first.wpilibj.PowerDistribution;
 import edu.wpi.first.wpilibj.RobotBase;
-import edu.wpi.first.wpilibj.Timer;
 import edu.wpi.first.wpilibj.motorcontrol.PWMMotorController;
 import edu.wpi.first.wpilibj.smartdashboard.SmartDashboard;
 import edu.wpi.first.wpilibj2.command.CommandBase;
 import edu.wpi.first.wpilibj2.command.Commands;
 import edu.wpi.first.wpilibj2.command.SubsystemBase;
 
-import java.util.ArrayList;
 import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.function.BiConsumer;
+import java.util.function.DoubleSupplier;
+import java.util.function.Supplier;
 
 /**
  * A subsystem that can check for faults in its hardware and publish their status
  */
 public abstract class AdvancedSubsystem extends SubsystemBase {
-    private final List<SubsystemFault> faults = new ArrayList<>();
-    private final List<SelfChecking> hardware = new ArrayList<>();
-    private final String statusTable;
+    private static final int FAULT_EVENT_CAPACITY = 256;
+
+    /**
+     * How long this subsystem's device checks take, recorded by its scheduler.
+     */
+    final LatencyHistogram checkLatency = new LatencyHistogram();
+    /**
+     * How long publishing this subsystem's status takes, recorded by its scheduler.
+     */
+    final LatencyHistogram publishLatency = new LatencyHistogram();
+    /**
+     * The devices of this subsystem that its scheduler has brought up.
+     */
+    final List<MonitoredDevice> monitoredDevices = new CopyOnWriteArrayList<>();
+    private final FaultRegistry faults = new FaultRegistry(FaultRegistry.DEFAULT_CAPACITY);
+    private final StatusPublisher statusPublisher;
+    private final CheckStepPublisher checkStepPublisher;
+    private final FaultLog faultLog;
+    private final RobotHealth.Member robotHealth;
     private final boolean checkErrors;
-    private final BiConsumer<Runnable, Double> periodicCallback;
+    private final CheckMode checkMode;
+    /**
+     * The scheduler that checks this subsystem's devices.
+     */
+    final HealthScheduler scheduler;
+    private final FaultSink faultSink = new FaultSink() {
+        @Override
+        public void report(FaultDescriptor fault) {
+            reportFault(fault);
+        }
+
+        @Override
+        public void report(long bits, FaultDescriptor[] descriptors) {
+            reportFaultWord(bits, descriptors);
+        }
+
+        @Override
+        public double getTimestamp() {
+            return checkTimestamp;
+        }
+    };
+    // Tasks requested off the checking thread while checks run in the background
+    private final Queue<Runnable> pendingChanges = new ConcurrentLinkedQueue<>();
+    private volatile FaultSnapshot snapshot = FaultSnapshot.EMPTY;
+    private int snapshotVersion;
+    private int reportedFaults;
+    private DeviceFaultState checkedDevice;
+    private double checkTimestamp;
+    // What the device being checked reported, only while recording
+    private FaultRecorder.Check recordedCheck;
+    private FaultRecorder.Check recording;
+    private final List<FaultListener> faultListeners = new CopyOnWriteArrayList<>();
+    private final FaultEventQueue faultEvents = new FaultEventQueue(FAULT_EVENT_CAPACITY);
 
     /**
      * @param periodicCallback By default, pass in TimedRobot.addPeriodic
      *                         (Runnable, double) to run the periodic checks
      *                         for faults and publish status without running
      *                         every single loop cycle to conserve CPU time.
+     *                         The checks of every subsystem share one
+     *                         callback, so only the callback of the first
+     *                         subsystem constructed is used and the ones
+     *                         passed to later subsystems are ignored.
      */
     public AdvancedSubsystem(BiConsumer<Runnable, Double> periodicCallback) {
-        this.periodicCallback = periodicCallback;
-        this.statusTable = "SystemStatus/" + this.getName();
-        CommandBase systemCheck = getSystemCheckCommand();
-        systemCheck.setName(getName() + "Check");
-        SmartDashboard.putData(statusTable + "/SystemCheck", systemCheck);
-        SmartDashboard.putBoolean(statusTable + "/CheckRan", false);
-        checkErrors = RobotBase.isReal();
-
-        setupCallbacks();
+        this(periodicCallback, null, CheckMode.MAIN_LOOP);
     }
 
     /**
@@ -54,73 +103,223 @@ public abstract class AdvancedSubsystem extends SubsystemBase {
      *                         (Runnable, double) to run the periodic checks
      *                         for faults and publish status without running
      *                         every single loop cycle to conserve CPU time.
+     *                         The checks of every subsystem share one
+     *                         callback, so only the callback of the first
+     *                         subsystem constructed is used and the ones
+     *                         passed to later subsystems are ignored.
      * @param name             The name of the subsystem to associate the hardware with.
      */
     public AdvancedSubsystem(BiConsumer<Runnable, Double> periodicCallback, String name) {
-        this.periodicCallback = periodicCallback;
-        this.setName(name);
-        this.statusTable = "SystemStatus/" + name;
+        this(periodicCallback, name, CheckMode.MAIN_LOOP);
+    }
+
+    /**
+     * @param periodicCallback By default, pass in TimedRobot.addPeriodic
+     *                         (Runnable, double) to run the periodic checks
+     *                         for faults and publish status without running
+     *                         every single loop cycle to conserve CPU time.
+     *                         The checks of every subsystem share one
+     *                         callback, so only the callback of the first
+     *                         subsystem constructed is used and the ones
+     *                         passed to later subsystems are ignored.
+     * @param checkMode        Where the hardware checks should run.
+     */
+    public AdvancedSubsystem(BiConsumer<Runnable, Double> periodicCallback, CheckMode checkMode) {
+        this(periodicCallback, null, checkMode);
+    }
+
+    /**
+     * @param periodicCallback By default, pass in TimedRobot.addPeriodic
+     *                         (Runnable, double) to run the periodic checks
+     *                         for faults and publish status without running
+     *                         every single loop cycle to conserve CPU time.
+     *                         The checks of every subsystem share one
+     *                         callback, so only the callback of the first
+     *                         subsystem constructed is used and the ones
+     *                         passed to later subsystems are ignored.
+     * @param name             The name of the subsystem to associate the hardware with,
+     *                         or null to use the class name.
+     * @param checkMode        Where the hardware checks should run.
+     */
+    public AdvancedSubsystem(BiConsumer<Runnable, Double> periodicCallback, String name, CheckMode checkMode) {
+        this.checkMode = checkMode;
+        this.scheduler = HealthScheduler.forMode(checkMode);
+        if (name != null) {
+            this.setName(name);
+        }
+        String statusTable = "SystemStatus/" + getName();
+        this.statusPublisher = new StatusPublisher(statusTable);
+        this.checkStepPublisher = new CheckStepPublisher(statusTable);
+        this.faultLog = new FaultLog(getName());
+        faults.setListener(new FaultRegistry.Listener() {
+            @Override
+            public void added(SubsystemFault fault) {
+                // Faults of devices are logged with the fault word of the device
+                if (fault.descriptor.device == null) {
+                    faultLog.logFault(fault);
+                }
+                if (!faultListeners.isEmpty()) {
+                    faultEvents.faultRaised(fault);
+                }
+            }
+
+            @Override
+            public void removed(SubsystemFault fault) {
+                if (fault.descriptor.device == null) {
+                    faultLog.logCleared(fault);
+                }
+                if (!faultListeners.isEmpty()) {
+                    faultEvents.faultCleared(fault);
+                }
+            }
+        });
+        this.robotHealth = RobotHealth.join(this);
         CommandBase systemCheck = getSystemCheckCommand();
         systemCheck.setName(getName() + "Check");
         SmartDashboard.putData(statusTable + "/SystemCheck", systemCheck);
-        SmartDashboard.putBoolean(statusTable + "/CheckRan", false);
+        statusPublisher.setCheckRan(false);
         checkErrors = RobotBase.isReal();
 
-        setupCallbacks();
+        scheduler.addSubsystem(this, periodicCallback);
     }
 
     /**
+     * In BACKGROUND mode the steps that clear and publish the status wait for the checking thread
+     * to run them, so once the command finishes {@link #getSystemStatus()} reflects the check.
+     *
      * @return The command to check system status
      */
     public CommandBase getSystemCheckCommand() {
         return Commands.sequence(
-                Commands.runOnce(
-                        () -> {
-                            SmartDashboard.putBoolean(statusTable + "/CheckRan", false);
-                            clearFaults();
-                            publishStatus();
-                        }),
+                Commands.runOnce(checkStepPublisher::reset),
+                onCheckThreadCommand(() -> {
+                    statusPublisher.setCheckRan(false);
+                    faults.clear();
+                    updateSnapshot();
+                    publishStatus();
+                }),
                 systemCheckCommand(),
-                Commands.runOnce(
-                        () -> {
-                            publishStatus();
-                            SmartDashboard.putBoolean(statusTable + "/CheckRan", true);
-                        }));
+                onCheckThreadCommand(() -> {
+                    updateSnapshot();
+                    publishStatus();
+                    statusPublisher.setCheckRan(true);
+                }));
     }
 
-    private void setupCallbacks() {
-        periodicCallback.accept(this::checkForFaults, 0.25);
-        periodicCallback.accept(this::publishStatus, 1.0);
+    // Finishes once the task has run on the checking thread, so the steps after it see its effects
+    private CommandBase onCheckThreadCommand(Runnable task) {
+        AtomicBoolean done = new AtomicBoolean();
+        return Commands.sequence(
+                Commands.runOnce(() -> {
+                    done.set(false);
+                    onCheckThread(() -> {
+                        task.run();
+                        done.set(true);
+                    });
+                }),
+                Commands.waitUntil(done::get));
     }
 
     /**
-     * Publishes the status of the AdvancedSubsystem to SmartDashboard.
+     * Called by a {@link CheckStep} of this subsystem when it is created.
+     *
+     * @param label The name of the step
      */
-    private void publishStatus() {
-        SystemStatus status = getSystemStatus();
-        SmartDashboard.putString(statusTable + "/Status", status.name());
-        SmartDashboard.putBoolean(statusTable + "/SystemOK", status == SystemStatus.OK);
+    void registerCheckStep(String label) {
+        checkStepPublisher.register(label);
+    }
 
-        String[] faultStrings = new String[this.faults.size()];
-        for (int i = 0; i < this.faults.size(); i++) {
-            SubsystemFault fault = this.faults.get(i);
-            faultStrings[i] = String.format("[%.2f] %s", fault.timestamp, fault.description);
+    /**
+     * Called by a {@link CheckStep} of this subsystem on the main robot loop when it starts and
+     * ends, to publish and log its outcome.
+     *
+     * @param label    The name of the step
+     * @param result   The outcome of the step
+     * @param duration How long the step took, in seconds
+     */
+    void recordCheckStep(String label, CheckStep.Result result, double duration) {
+        checkStepPublisher.publish(label, result, duration);
+        if (result != CheckStep.Result.RUNNING) {
+            onCheckThread(() -> faultLog.logCheckStep(label, result, duration));
         }
-        SmartDashboard.putStringArray(statusTable + "/Faults", faultStrings);
+    }
 
-        if (faultStrings.length > 0) {
-            SmartDashboard.putString(statusTable + "/LastFault", faultStrings[faultStrings.length - 1]);
+    /**
+     * Runs a task on the thread that runs the hardware checks, which owns the recorded faults
+     * and the status publisher. While checks run in the background the task is queued for the
+     * start of the next cycle, otherwise it runs right away. The snapshot is brought up to date
+     * after the task.
+     *
+     * @param task The task to run
+     */
+    private void onCheckThread(Runnable task) {
+        if (checkMode == CheckMode.BACKGROUND) {
+            pendingChanges.offer(task);
         } else {
-            SmartDashboard.putString(statusTable + "/LastFault", "");
+            task.run();
+            updateSnapshot();
         }
     }
 
+    // Only allocates when the recorded faults changed since the last snapshot
+    private void updateSnapshot() {
+        if (faults.getVersion() != snapshotVersion) {
+            snapshotVersion = faults.getVersion();
+            SystemStatus previousStatus = snapshot.status;
+            snapshot = new FaultSnapshot(faults.getFaults(), faults.getStatus());
+            if (snapshot.status != previousStatus && !faultListeners.isEmpty()) {
+                faultEvents.statusChanged(snapshot.status);
+            }
+            robotHealth.update(snapshot.status, faults.getErrorCount(), faults.getWarningCount(), snapshot.faults);
+            faultLog.logStatus(snapshot.status);
+        }
+    }
+
+    /**
+     * Publishes the status of the AdvancedSubsystem to SmartDashboard, only sending values that
+     * changed since the last publish.
+     */
+    void publishStatus() {
+        FaultSnapshot snapshot = this.snapshot;
+        statusPublisher.publish(snapshot.status, snapshot.faults);
+        statusPublisher.publishTiming(checkLatency, publishLatency, monitoredDevices);
+    }
+
     /**
      * @param fault The fault to add to the AdvancedSubsystem
      */
     protected void addFault(SubsystemFault fault) {
-        if (!this.faults.contains(fault)) {
-            this.faults.add(fault);
+        onCheckThread(() -> this.faults.add(fault));
+    }
+
+    /**
+     * Collects a fault reported by the device being checked, which is recorded once it passes
+     * the debounce of its kind. Descriptors are reused between check cycles, so a fault that is
+     * already recorded is matched without allocating.
+     *
+     * @param descriptor The descriptor of the reported fault
+     */
+    private void reportFault(FaultDescriptor descriptor) {
+        reportedFaults++;
+        checkedDevice.report(descriptor);
+        if (recording != null) {
+            recording.add(descriptor);
+        }
+    }
+
+    /**
+     * Collects a word of faults reported by the device being checked. Only the bits that changed
+     * since the device's last word are looked at, so a device whose faults stay the same costs
+     * the same to check no matter how many it has.
+     *
+     * @param bits        A word with bit i set when the i-th fault is active
+     * @param descriptors The descriptor of each bit
+     */
+    private void reportFaultWord(long bits, FaultDescriptor[] descriptors) {
+        reportedFaults += Long.bitCount(bits);
+        checkedDevice.reportWord(bits, descriptors);
+        if (recording != null) {
+            recording.add(bits, descriptors);
         }
     }
 
@@ -151,39 +350,82 @@ public abstract class AdvancedSubsystem extends SubsystemBase {
     }
 
     /**
-     * @return A list of all recorded faults in an AdvancedSubsystem
+     * Never blocks, even while checks run in the background.
+     *
+     * @return A read only list of all recorded faults in an AdvancedSubsystem, non-sticky faults
+     * are dropped once they haven't been reported for 10 seconds
      */
     public List<SubsystemFault> getFaults() {
-        return this.faults;
+        return this.snapshot.faults;
     }
 
     /**
      * Clears recorded faults in an AdvancedSubsystem
      */
     public void clearFaults() {
-        this.faults.clear();
+        onCheckThread(this.faults::clear);
     }
 
     /**
-     * Check for faults in the AdvancedSubsystem
+     * Faults are always published as packed integers in FaultData, four values per fault (code,
+     * device ID, timestamp in milliseconds, flags: 1 warning, 2 sticky) with the code and device
+     * tables under SystemStatus/Codes. Turning off the formatted Faults and LastFault strings
+     * saves bandwidth when many faults are active. They are cleared at the next publish when
+     * turned off, and resent when turned back on.
+     *
+     * @param enabled Whether faults are also published as formatted strings, true by default
+     */
+    public static void setPublishFaultText(boolean enabled) {
+        StatusPublisher.setPublishFaultText(enabled);
+    }
+
+    /**
+     * Starts writing the fault history of every subsystem to a DataLog, see the README for the
+     * entries. Nothing is logged unless this is called, pass DataLogManager.getLog() after
+     * starting DataLogManager to log alongside the rest of the robot's data.
+     *
+     * @param log The log to write to, or null to stop logging
+     */
+    public static void enableFaultLog(DataLog log) {
+        FaultLog.enable(log);
+    }
+
+    /**
+     * Subscribes to fault events, so changes don't have to be found by polling
+     * {@link #getFaults()}. Events are queued by the thread that checks the hardware and
+     * delivered on the main robot loop. If listeners fall behind, events are dropped rather than
+     * delaying the checks, and listeners are then resynced with
+     * {@link FaultListener#resynced(AdvancedSubsystem, List, SystemStatus)}.
+     *
+     * @param listener The listener to add
+     */
+    public void addFaultListener(FaultListener listener) {
+        faultListeners.add(listener);
+    }
+
+    /**
+     * @param listener The listener to remove
+     */
+    public void removeFaultListener(FaultListener listener) {
+        faultListeners.remove(listener);
+    }
+
+    /**
+     * Called by the scheduler on the main robot loop to deliver queued fault events.
+     */
+    void dispatchFaultEvents() {
+        faultEvents.dispatch(this, faultListeners);
+    }
+
+    /**
+     * Check for faults in the AdvancedSubsystem. The status is kept up to date as faults are
+     * recorded and expire, so this does not look at individual faults, and it always matches the
+     * faults returned by {@link #getFaults()} at the same moment.
      *
      * @return The worst status of the devices in the AdvancedSubsystem
      */
     public SystemStatus getSystemStatus() {
-        SystemStatus worstStatus = SystemStatus.OK;
-
-        for (SubsystemFault f : this.faults) {
-            if (f.sticky || f.timestamp > Timer.getFPGATimestamp() - 10) {
-                if (f.isWarning) {
-                    if (worstStatus != SystemStatus.ERROR) {
-                        worstStatus = SystemStatus.WARNING;
-                    }
-                } else {
-                    worstStatus = SystemStatus.ERROR;
-                }
-            }
-        }
-        return worstStatus;
+        return this.snapshot.status;
     }
 
     /**
@@ -193,7 +435,41 @@ public abstract class AdvancedSubsystem extends SubsystemBase {
      * @param phoenixMotor The TalonSRX or VictorSPX to be registered
      */
     public void registerHardware(String label, BaseMotorController phoenixMotor) {
-        hardware.add(new SelfCheckingPhoenixMotor(label, phoenixMotor));
+        registerHardware(label, phoenixMotor, HealthScheduler.CHECK_PERIOD);
+    }
+
+    /**
+     * Register a base TalonSRX or VictorSPX for self-checking
+     *
+     * @param label        The name of the hardware to be registered
+     * @param phoenixMotor The TalonSRX or VictorSPX to be registered
+     * @param checkPeriod  How often the hardware is checked, in seconds, before adapting to its health
+     */
+    public void registerHardware(String label, BaseMotorController phoenixMotor, double checkPeriod) {
+        registerDevice(label, () -> new SelfCheckingPhoenixMotor(label, phoenixMotor), checkPeriod);
+    }
+
+    /**
+     * Register a base TalonSRX or VictorSPX on a CANivore for self-checking
+     *
+     * @param label        The name of the hardware to be registered
+     * @param phoenixMotor The TalonSRX or VictorSPX to be registered
+     * @param canBus       The CAN bus the hardware is on, the name of a CANivore or "rio"
+     */
+    public void registerHardware(String label, BaseMotorController phoenixMotor, String canBus) {
+        registerHardware(label, phoenixMotor, canBus, HealthScheduler.CHECK_PERIOD);
+    }
+
+    /**
+     * Register a base TalonSRX or VictorSPX on a CANivore for self-checking
+     *
+     * @param label        The name of the hardware to be registered
+     * @param phoenixMotor The TalonSRX or VictorSPX to be registered
+     * @param canBus       The CAN bus the hardware is on, the name of a CANivore or "rio"
+     * @param checkPeriod  How often the hardware is checked, in seconds, before adapting to its health
+     */
+    public void registerHardware(String label, BaseMotorController phoenixMotor, String canBus, double checkPeriod) {
+        registerDevice(label, () -> new SelfCheckingPhoenixMotor(label, phoenixMotor, canBus), checkPeriod);
     }
 
     /**
@@ -203,7 +479,18 @@ public abstract class AdvancedSubsystem extends SubsystemBase {
      * @param talon The TalonFX to be registered
      */
     public void registerHardware(String label, com.ctre.phoenixpro.hardware.TalonFX talon) {
-        hardware.add(new SelfCheckingTalonFXPro(label, talon));
+        registerHardware(label, talon, HealthScheduler.CHECK_PERIOD);
+    }
+
+    /**
+     * Register a TalonFX for self-checking
+     *
+     * @param label       The name of the hardware to be registered
+     * @param talon       The TalonFX to be registered
+     * @param checkPeriod How often the hardware is checked, in seconds, before adapting to its health
+     */
+    public void registerHardware(String label, com.ctre.phoenixpro.hardware.TalonFX talon, double checkPeriod) {
+        registerDevice(label, () -> new SelfCheckingTalonFXPro(label, talon, scheduler.statusSignals), checkPeriod);
     }
 
     /**
@@ -213,7 +500,18 @@ public abstract class AdvancedSubsystem extends SubsystemBase {
      * @param pwmMotor The PWM Motor Controller to be registered
      */
     public void registerHardware(String label, PWMMotorController pwmMotor) {
-        hardware.add(new SelfCheckingPWMMotor(label, pwmMotor));
+        registerHardware(label, pwmMotor, HealthScheduler.CHECK_PERIOD);
+    }
+
+    /**
+     * Register a PWM Motor Controller for self-checking
+     *
+     * @param label       The name of the hardware to be registered
+     * @param pwmMotor    The PWM Motor Controller to be registered
+     * @param checkPeriod How often the hardware is checked, in seconds, before adapting to its health
+     */
+    public void registerHardware(String label, PWMMotorController pwmMotor, double checkPeriod) {
+        registerDevice(label, () -> new SelfCheckingPWMMotor(label, pwmMotor), checkPeriod);
     }
 
     /**
@@ -223,7 +521,18 @@ public abstract class AdvancedSubsystem extends SubsystemBase {
      * @param spark The CANSparkMax to be registered
      */
     public void registerHardware(String label, CANSparkMax spark) {
-        hardware.add(new SelfCheckingSparkMax(label, spark));
+        registerHardware(label, spark, HealthScheduler.CHECK_PERIOD);
+    }
+
+    /**
+     * Register a CANSparkMax for self-checking
+     *
+     * @param label       The name of the hardware to be registered
+     * @param spark       The CANSparkMax to be registered
+     * @param checkPeriod How often the hardware is checked, in seconds, before adapting to its health
+     */
+    public void registerHardware(String label, CANSparkMax spark, double checkPeriod) {
+        registerDevice(label, () -> new SelfCheckingSparkMax(label, spark), checkPeriod);
     }
 
     /**
@@ -233,7 +542,41 @@ public abstract class AdvancedSubsystem extends SubsystemBase {
      * @param pigeon2 The Pigeon2 to be registered
      */
     public void registerHardware(String label, com.ctre.phoenix.sensors.Pigeon2 pigeon2) {
-        hardware.add(new SelfCheckingPigeon2(label, pigeon2));
+        registerHardware(label, pigeon2, HealthScheduler.CHECK_PERIOD);
+    }
+
+    /**
+     * Register a Pigeon2 for self-checking
+     *
+     * @param label       The name of the hardware to be registered
+     * @param pigeon2     The Pigeon2 to be registered
+     * @param checkPeriod How often the hardware is checked, in seconds, before adapting to its health
+     */
+    public void registerHardware(String label, com.ctre.phoenix.sensors.Pigeon2 pigeon2, double checkPeriod) {
+        registerDevice(label, () -> new SelfCheckingPigeon2(label, pigeon2), checkPeriod);
+    }
+
+    /**
+     * Register a Pigeon2 on a CANivore for self-checking
+     *
+     * @param label       The name of the hardware to be registered
+     * @param pigeon2     The Pigeon2 to be registered
+     * @param canBus      The CAN bus the hardware is on, the name of a CANivore or "rio"
+     */
+    public void registerHardware(String label, com.ctre.phoenix.sensors.Pigeon2 pigeon2, String canBus) {
+        registerHardware(label, pigeon2, canBus, HealthScheduler.CHECK_PERIOD);
+    }
+
+    /**
+     * Register a Pigeon2 on a CANivore for self-checking
+     *
+     * @param label       The name of the hardware to be registered
+     * @param pigeon2     The Pigeon2 to be registered
+     * @param canBus      The CAN bus the hardware is on, the name of a CANivore or "rio"
+     * @param checkPeriod How often the hardware is checked, in seconds, before adapting to its health
+     */
+    public void registerHardware(String label, com.ctre.phoenix.sensors.Pigeon2 pigeon2, String canBus, double checkPeriod) {
+        registerDevice(label, () -> new SelfCheckingPigeon2(label, pigeon2, canBus), checkPeriod);
     }
 
     /**
@@ -243,7 +586,18 @@ public abstract class AdvancedSubsystem extends SubsystemBase {
      * @param pigeon2 The Pigeon2Pro to be registered
      */
     public void registerHardware(String label, com.ctre.phoenixpro.hardware.Pigeon2 pigeon2) {
-        hardware.add(new SelfCheckingPigeon2Pro(label, pigeon2));
+        registerHardware(label, pigeon2, HealthScheduler.CHECK_PERIOD);
+    }
+
+    /**
+     * Register a Pigeon2Pro for self-checking
+     *
+     * @param label       The name of the hardware to be registered
+     * @param pigeon2     The Pigeon2Pro to be registered
+     * @param checkPeriod How often the hardware is checked, in seconds, before adapting to its health
+     */
+    public void registerHardware(String label, com.ctre.phoenixpro.hardware.Pigeon2 pigeon2, double checkPeriod) {
+        registerDevice(label, () -> new SelfCheckingPigeon2Pro(label, pigeon2, scheduler.statusSignals), checkPeriod);
     }
 
     /**
@@ -253,7 +607,41 @@ public abstract class AdvancedSubsystem extends SubsystemBase {
      * @param pigeon The PigeonIMU to be registered
      */
     public void registerHardware(String label, PigeonIMU pigeon) {
-        hardware.add(new SelfCheckingPigeonIMU(label, pigeon));
+        registerHardware(label, pigeon, HealthScheduler.CHECK_PERIOD);
+    }
+
+    /**
+     * Register a PigeonIMU for self-checking
+     *
+     * @param label       The name of the hardware to be registered
+     * @param pigeon      The PigeonIMU to be registered
+     * @param checkPeriod How often the hardware is checked, in seconds, before adapting to its health
+     */
+    public void registerHardware(String label, PigeonIMU pigeon, double checkPeriod) {
+        registerDevice(label, () -> new SelfCheckingPigeonIMU(label, pigeon), checkPeriod);
+    }
+
+    /**
+     * Register a PigeonIMU on a CANivore for self-checking
+     *
+     * @param label       The name of the hardware to be registered
+     * @param pigeon      The PigeonIMU to be registered
+     * @param canBus      The CAN bus the hardware is on, the name of a CANivore or "rio"
+     */
+    public void registerHardware(String label, PigeonIMU pigeon, String canBus) {
+        registerHardware(label, pigeon, canBus, HealthScheduler.CHECK_PERIOD);
+    }
+
+    /**
+     * Register a PigeonIMU on a CANivore for self-checking
+     *
+     * @param label       The name of the hardware to be registered
+     * @param pigeon      The PigeonIMU to be registered
+     * @param canBus      The CAN bus the hardware is on, the name of a CANivore or "rio"
+     * @param checkPeriod How often the hardware is checked, in seconds, before adapting to its health
+     */
+    public void registerHardware(String label, PigeonIMU pigeon, String canBus, double checkPeriod) {
+        registerDevice(label, () -> new SelfCheckingPigeonIMU(label, pigeon, canBus), checkPeriod);
     }
 
     /**
@@ -263,7 +651,41 @@ public abstract class AdvancedSubsystem extends SubsystemBase {
      * @param canCoder The CANCoder to be registered
      */
     public void registerHardware(String label, CANCoder canCoder) {
-        hardware.add(new SelfCheckingCANCoder(label, canCoder));
+        registerHardware(label, canCoder, HealthScheduler.CHECK_PERIOD);
+    }
+
+    /**
+     * Register a CANCoder for self-checking
+     *
+     * @param label       The name of the hardware to be registered
+     * @param canCoder    The CANCoder to be registered
+     * @param checkPeriod How often the hardware is checked, in seconds, before adapting to its health
+     */
+    public void registerHardware(String label, CANCoder canCoder, double checkPeriod) {
+        registerDevice(label, () -> new SelfCheckingCANCoder(label, canCoder), checkPeriod);
+    }
+
+    /**
+     * Register a CANCoder on a CANivore for self-checking
+     *
+     * @param label       The name of the hardware to be registered
+     * @param canCoder    The CANCoder to be registered
+     * @param canBus      The CAN bus the hardware is on, the name of a CANivore or "rio"
+     */
+    public void registerHardware(String label, CANCoder canCoder, String canBus) {
+        registerHardware(label, canCoder, canBus, HealthScheduler.CHECK_PERIOD);
+    }
+
+    /**
+     * Register a CANCoder on a CANivore for self-checking
+     *
+     * @param label       The name of the hardware to be registered
+     * @param canCoder    The CANCoder to be registered
+     * @param canBus      The CAN bus the hardware is on, the name of a CANivore or "rio"
+     * @param checkPeriod How often the hardware is checked, in seconds, before adapting to its health
+     */
+    public void registerHardware(String label, CANCoder canCoder, String canBus, double checkPeriod) {
+        registerDevice(label, () -> new SelfCheckingCANCoder(label, canCoder, canBus), checkPeriod);
     }
 
     /**
@@ -273,7 +695,18 @@ public abstract class AdvancedSubsystem extends SubsystemBase {
      * @param canCoder The CANCoderPro to be registered
      */
     public void registerHardware(String label, CANcoder canCoder) {
-        hardware.add(new SelfCheckingCANCoderPro(label, canCoder));
+        registerHardware(label, canCoder, HealthScheduler.CHECK_PERIOD);
+    }
+
+    /**
+     * Register a CANCoderPro for self-checking
+     *
+     * @param label       The name of the hardware to be registered
+     * @param canCoder    The CANCoderPro to be registered
+     * @param checkPeriod How often the hardware is checked, in seconds, before adapting to its health
+     */
+    public void registerHardware(String label, CANcoder canCoder, double checkPeriod) {
+        registerDevice(label, () -> new SelfCheckingCANCoderPro(label, canCoder, scheduler.statusSignals), checkPeriod);
     }
 
     /**
@@ -283,7 +716,50 @@ public abstract class AdvancedSubsystem extends SubsystemBase {
      * @param powerDistribution The Power Distribution Module to be registered
      */
     public void registerHardware(String label, PowerDistribution powerDistribution) {
-        hardware.add(new SelfCheckingPowerDistribution(label, powerDistribution));
+        registerHardware(label, powerDistribution, HealthScheduler.CHECK_PERIOD);
+    }
+
+    /**
+     * Register a Power Distribution Module for self-checking
+     *
+     * @param label             The name of the hardware to be registered
+     * @param powerDistribution The Power Distribution Module to be registered
+     * @param checkPeriod       How often the hardware is checked, in seconds, before adapting to its health
+     */
+    public void registerHardware(String label, PowerDistribution powerDistribution, double checkPeriod) {
+        registerDevice(label, () -> new SelfCheckingPowerDistribution(label, powerDistribution), checkPeriod);
+    }
+
+    /**
+     * Register the Power Distribution channel of a device for self-checking, so its current draw
+     * and breaker show up as faults of this subsystem
+     *
+     * @param label             The name of the device powered by the channel
+     * @param powerDistribution The Power Distribution Module the device is powered from
+     * @param channel           The channel the device is powered from
+     * @param breakerRating     The rating of the channel's breaker, in amps
+     */
+    public void registerPowerChannel(String label, PowerDistribution powerDistribution, int channel,
+                                     double breakerRating) {
+        registerPowerChannel(label, powerDistribution, channel, breakerRating, null);
+    }
+
+    /**
+     * Register the Power Distribution channel of a device for self-checking, so its current draw,
+     * breaker and a dead channel show up as faults of this subsystem
+     *
+     * @param label             The name of the device powered by the channel
+     * @param powerDistribution The Power Distribution Module the device is powered from
+     * @param channel           The channel the device is powered from
+     * @param breakerRating     The rating of the channel's breaker, in amps
+     * @param commandedOutput   The output the device is commanded to, such as motor::get, or null to
+     *                          not check for a dead channel
+     */
+    public void registerPowerChannel(String label, PowerDistribution powerDistribution, int channel,
+                                     double breakerRating, DoubleSupplier commandedOutput) {
+        String channelLabel = String.format("%s (channel %d)", label, channel);
+        registerDevice(channelLabel, () -> new SelfCheckingPowerChannel(channelLabel, powerDistribution, channel,
+                breakerRating, commandedOutput), HealthScheduler.CHECK_PERIOD);
     }
 
     /**
@@ -293,7 +769,18 @@ public abstract class AdvancedSubsystem extends SubsystemBase {
      * @param pneumaticsControlModule The PCM to be registered
      */
     public void registerHardware(String label, PneumaticsControlModule pneumaticsControlModule) {
-        hardware.add(new SelfCheckingPneumaticsControlModule(label, pneumaticsControlModule));
+        registerHardware(label, pneumaticsControlModule, HealthScheduler.CHECK_PERIOD);
+    }
+
+    /**
+     * Register a PCM for self-checking
+     *
+     * @param label                   The name of the hardware to be registered
+     * @param pneumaticsControlModule The PCM to be registered
+     * @param checkPeriod             How often the hardware is checked, in seconds, before adapting to its health
+     */
+    public void registerHardware(String label, PneumaticsControlModule pneumaticsControlModule, double checkPeriod) {
+        registerDevice(label, () -> new SelfCheckingPneumaticsControlModule(label, pneumaticsControlModule), checkPeriod);
     }
 
     /**
@@ -303,24 +790,177 @@ public abstract class AdvancedSubsystem extends SubsystemBase {
      * @param navx  The NavX to be registered
      */
     public void registerHardware(String label, AHRS navx) {
-        hardware.add(new SelfCheckingNavX(label, navx));
+        registerHardware(label, navx, HealthScheduler.CHECK_PERIOD);
+    }
+
+    /**
+     * Register a NavX for self-checking
+     *
+     * @param label       The name of the hardware to be registered
+     * @param navx        The NavX to be registered
+     * @param checkPeriod How often the hardware is checked, in seconds, before adapting to its health
+     */
+    public void registerHardware(String label, AHRS navx, double checkPeriod) {
+        registerDevice(label, () -> new SelfCheckingNavX(label, navx), checkPeriod);
     }
 
     /**
-     * Command to run a full systems check
+     * Register a custom device for self-checking
+     *
+     * @param device The device to be registered
+     */
+    public void registerHardware(SelfChecking device) {
+        registerHardware(device, HealthScheduler.CHECK_PERIOD);
+    }
+
+    /**
+     * Register a custom device for self-checking
+     *
+     * @param device      The device to be registered
+     * @param checkPeriod How often the hardware is checked, in seconds, before adapting to its health
+     */
+    public void registerHardware(SelfChecking device, double checkPeriod) {
+        // Simulated devices are checked off the robot too, so the fault pipeline can run in simulation
+        if (checkErrors || device instanceof SelfCheckingSimDevice) {
+            scheduler.addDevice(this, device.getLabel(), () -> device, checkPeriod);
+        }
+    }
+
+    /**
+     * Command to run a full systems check. Called from the AdvancedSubsystem constructor, before
+     * the fields of the subclass are set, so hardware fields must only be read when the command
+     * runs (through lambdas, not method references bound to the fields).
      *
      * @return A command to run a full systems check
      */
     protected abstract CommandBase systemCheckCommand();
 
-    // Method to check for faults while the robot is operating normally
-    private void checkForFaults() {
-        if (checkErrors) {
-            for (SelfChecking device : hardware) {
-                for (SubsystemFault fault : device.checkForFaults()) {
-                    addFault(fault);
-                }
+    /**
+     * Called by the scheduler before it checks devices in a cycle.
+     *
+     * @param timestamp The time of the cycle
+     */
+    void beginChecks(double timestamp) {
+        Runnable change;
+        while ((change = pendingChanges.poll()) != null) {
+            change.run();
+        }
+        faults.removeExpired(timestamp);
+    }
+
+    /**
+     * Called by the scheduler to check one of this subsystem's devices while the robot is
+     * operating normally.
+     *
+     * @param device    The device to check
+     * @param timestamp The time of the cycle
+     * @return Whether the device reported any faults
+     */
+    boolean checkDevice(MonitoredDevice device, double timestamp) {
+        return checkDevice(device, timestamp, FaultRecorder.active());
+    }
+
+    /**
+     * Checks one of this subsystem's devices.
+     *
+     * @param device    The device to check
+     * @param timestamp The time of the cycle
+     * @param recorder  The recorder to write the check to, or null to not record it
+     * @return Whether the device reported any faults
+     */
+    boolean checkDevice(MonitoredDevice device, double timestamp, FaultRecorder recorder) {
+        if (recorder != null) {
+            if (recordedCheck == null) {
+                recordedCheck = new FaultRecorder.Check();
             }
+            recordedCheck.clear();
+        }
+        recording = recorder != null ? recordedCheck : null;
+        reportedFaults = 0;
+        checkTimestamp = timestamp;
+        checkedDevice = device.faultState;
+        checkedDevice.begin();
+        device.device.checkForFaults(faultSink);
+        checkedDevice.end(timestamp);
+        if (recorder != null) {
+            recorder.writeCheck(device, timestamp, recordedCheck);
+        }
+
+        // Debounced faults stay recorded while they are active, even on checks that don't report them
+        long active = checkedDevice.getActive();
+        while (active != 0) {
+            faults.record(checkedDevice.getFault(Long.numberOfTrailingZeros(active)), timestamp);
+            active &= active - 1;
+        }
+        return reportedFaults > 0;
+    }
+
+    /**
+     * @param device A device registered to this subsystem
+     * @return The state that tracks and logs the faults of the device
+     */
+    DeviceFaultState createFaultState(SelfChecking device) {
+        return new DeviceFaultState(device.getLabel(), faultLog.createDeviceEntry(device.getLabel()));
+    }
+
+    /**
+     * Called by the scheduler to record a fault about a device that it found while checking it.
+     *
+     * @param descriptor The descriptor of the fault
+     * @param timestamp  The time of the cycle
+     */
+    void reportDeviceFault(FaultDescriptor descriptor, double timestamp) {
+        faults.record(descriptor, timestamp);
+    }
+
+    /**
+     * Called by the scheduler to remove a fault about a device once the device recovered from it.
+     *
+     * @param descriptor The descriptor of the fault
+     */
+    void clearDeviceFault(FaultDescriptor descriptor) {
+        faults.remove(descriptor);
+    }
+
+    /**
+     * Called by the scheduler after it checked devices in a cycle.
+     */
+    void endChecks() {
+        updateSnapshot();
+    }
+
+    // The checker is only built once the scheduler brings the device up
+    private void registerDevice(String label, Supplier<SelfChecking> factory, double checkPeriod) {
+        if (checkErrors) {
+            scheduler.addDevice(this, label, factory, checkPeriod);
+        }
+    }
+
+    /**
+     * Where the hardware checks of an AdvancedSubsystem run
+     */
+    public enum CheckMode {
+        /**
+         * Checks run on the main robot loop, spread across cycles by {@link HealthScheduler#getInstance()}
+         */
+        MAIN_LOOP,
+        /**
+         * Checks run on a shared low priority background thread so blocking CAN reads don't
+         * delay the main robot loop
+         */
+        BACKGROUND
+    }
+
+    // The recorded faults and matching status, replaced as a whole so readers never see a mix
+    private static final class FaultSnapshot {
+        static final FaultSnapshot EMPTY = new FaultSnapshot(List.of(), SystemStatus.OK);
+
+        final List<SubsystemFault> faults;
+        final SystemStatus status;
+
+        FaultSnapshot(List<SubsystemFault> faults, SystemStatus status) {
+            this.faults = faults;
+            this.status = status;
         }
     }
 
@@ -0,0 +1,210 @@
+package com.northeasternrobotics.advancedsubsystems;
+
+import com.ctre.phoenixpro.CANBus;
+import com.ctre.phoenixpro.StatusCode;
+import com.northeasternrobotics.advancedsubsystems.selfcheck.SelfChecking;
+import edu.wpi.first.hal.can.CANStatus;
+import edu.wpi.first.networktables.DoublePublisher;
+import edu.wpi.first.networktables.IntegerPublisher;
+import edu.wpi.first.networktables.NetworkTable;
+import edu.wpi.first.networktables.NetworkTableInstance;
+import edu.wpi.first.wpilibj.RobotController;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Watches the load and error counters of every CAN bus a checked device is on: the roboRIO bus
+ * through {@link RobotController#getCANStatus()} and CANivores through Phoenix Pro. The scheduler
+ * uses it to back off checks of healthy devices on a busy bus and to report bus errors as faults
+ * of the devices on that bus.
+ *
+ * <p>Each scheduler has its own monitor for the buses of the devices it checks, read on its own
+ * thread. Each bus is published in the scheduler's table under CAN/Name with its Utilization
+ * (0 to 1), BusOffCount and TxFullCount.
+ */
+final class CanBusMonitor {
+    /**
+     * How often the bus status is read, in seconds.
+     */
+    static final double UPDATE_PERIOD = 0.25;
+    /**
+     * How long a bus error is reported to the devices on the bus after the count last rose, in
+     * seconds. Long enough for every device to be checked at least once.
+     */
+    static final double FAULT_HOLD_TIME = 5.0;
+    /**
+     * The default bus utilization above which checks of healthy devices are throttled.
+     */
+    static final double DEFAULT_UTILIZATION_THRESHOLD = 0.8;
+
+    private final List<Bus> buses = new ArrayList<>();
+    private final String tablePath;
+    private volatile double utilizationThreshold = DEFAULT_UTILIZATION_THRESHOLD;
+    private double nextUpdate;
+
+    /**
+     * Creates a new CanBusMonitor.
+     *
+     * @param tablePath The path of the SmartDashboard table the buses are published under
+     */
+    CanBusMonitor(String tablePath) {
+        this.tablePath = tablePath;
+    }
+
+    /**
+     * @param network The CAN bus of a device, as returned by {@link SelfChecking#getNetwork()}
+     * @return The monitored bus, or null if the device is not on a CAN bus
+     */
+    synchronized Bus getBus(String network) {
+        if (network == null) {
+            return null;
+        }
+        String name = network.isEmpty() ? SelfChecking.RIO_BUS : network;
+        for (Bus bus : buses) {
+            if (bus.name.equals(name)) {
+                return bus;
+            }
+        }
+        Bus bus = new Bus(name, tablePath + "/CAN/" + name);
+        buses.add(bus);
+        return bus;
+    }
+
+    /**
+     * @param threshold The bus utilization, from 0 to 1, above which checks of healthy devices
+     *                  are throttled
+     */
+    void setUtilizationThreshold(double threshold) {
+        utilizationThreshold = threshold;
+    }
+
+    /**
+     * @return The bus utilization above which checks of healthy devices are throttled
+     */
+    double getUtilizationThreshold() {
+        return utilizationThreshold;
+    }
+
+    /**
+     * Reads and publishes the status of every bus if it has not been read for
+     * {@link #UPDATE_PERIOD}.
+     *
+     * @param timestamp The current time
+     */
+    synchronized void update(double timestamp) {
+        if (timestamp < nextUpdate) {
+            return;
+        }
+        nextUpdate = timestamp + UPDATE_PERIOD;
+        for (int i = 0; i < buses.size(); i++) {
+            buses.get(i).update(timestamp, utilizationThreshold);
+        }
+    }
+
+    /**
+     * A CAN bus and its last read status.
+     */
+    static final class Bus {
+        /**
+         * The name of the bus, "rio" for the roboRIO bus.
+         */
+        final String name;
+        /**
+         * Reported to the devices on the bus after the bus went off.
+         */
+        final FaultDescriptor busOffFault;
+        /**
+         * Reported to the devices on the bus after a transmit buffer filled up.
+         */
+        final FaultDescriptor txFullFault;
+        private final DoublePublisher utilizationPublisher;
+        private final IntegerPublisher busOffPublisher;
+        private final IntegerPublisher txFullPublisher;
+        private volatile double utilization;
+        private volatile boolean congested;
+        private int busOffCount = -1;
+        private int txFullCount = -1;
+        private volatile double lastBusOff = Double.NEGATIVE_INFINITY;
+        private volatile double lastTxFull = Double.NEGATIVE_INFINITY;
+
+        private Bus(String name, String tablePath) {
+            this.name = name;
+            this.busOffFault = new FaultDescriptor("CAN " + name, new FaultKind("Bus off"));
+            this.txFullFault = new FaultDescriptor("CAN " + name, new FaultKind("Transmit buffer full", true));
+            NetworkTable table = NetworkTableInstance.getDefault().getTable("SmartDashboard").getSubTable(tablePath);
+            utilizationPublisher = table.getDoubleTopic("Utilization").publish();
+            busOffPublisher = table.getIntegerTopic("BusOffCount").publish();
+            txFullPublisher = table.getIntegerTopic("TxFullCount").publish();
+        }
+
+        private void update(double timestamp, double threshold) {
+            double newUtilization;
+            int newBusOff;
+            int newTxFull;
+            if (name.equals(SelfChecking.RIO_BUS)) {
+                CANStatus status = RobotController.getCANStatus();
+                newUtilization = status.percentBusUtilization;
+                newBusOff = status.busOffCount;
+                newTxFull = status.txFullCount;
+            } else {
+                CANBus.CANBusStatus status = CANBus.getStatus(name);
+                if (status.Status != StatusCode.OK) {
+                    return;
+                }
+                newUtilization = status.BusUtilization;
+                newBusOff = status.BusOffCount;
+                newTxFull = status.TxFullCount;
+            }
+
+            // The first read only sets the baseline, errors from before the robot code started don't count
+            if (busOffCount >= 0 && newBusOff > busOffCount) {
+                lastBusOff = timestamp;
+            }
+            if (txFullCount >= 0 && newTxFull > txFullCount) {
+                lastTxFull = timestamp;
+            }
+            if (newBusOff != busOffCount) {
+                busOffPublisher.set(newBusOff);
+            }
+            if (newTxFull != txFullCount) {
+                txFullPublisher.set(newTxFull);
+            }
+            busOffCount = newBusOff;
+            txFullCount = newTxFull;
+            utilization = newUtilization;
+            congested = newUtilization > threshold;
+            utilizationPublisher.set(newUtilization);
+        }
+
+        /**
+         * @return The fraction of the bus bandwidth in use when it was last read, from 0 to 1
+         */
+        double getUtilization() {
+            return utilization;
+        }
+
+        /**
+         * @return Whether the bus utilization was above the threshold when it was last read
+         */
+        boolean isCongested() {
+            return congested;
+        }
+
+        /**
+         * @param timestamp The current time
+         * @return Whether the bus went off within {@link #FAULT_HOLD_TIME}
+         */
+        boolean hadBusOff(double timestamp) {
+            return timestamp - lastBusOff < FAULT_HOLD_TIME;
+        }
+
+        /**
+         * @param timestamp The current time
+         * @return Whether a transmit buffer filled up within {@link #FAULT_HOLD_TIME}
+         */
+        boolean hadTxFull(double timestamp) {
+            return timestamp - lastTxFull < FAULT_HOLD_TIME;
+        }
+    }
+}
@@ -0,0 +1,130 @@
+package com.northeasternrobotics.advancedsubsystems;
+
+import edu.wpi.first.wpilibj.Timer;
+import edu.wpi.first.wpilibj2.command.CommandBase;
+
+import java.util.function.BooleanSupplier;
+import java.util.function.Supplier;
+
+/**
+ * One step of a system check: starts something, waits for a condition to pass, and stops it
+ * again. If the condition does not pass before the timeout the step adds a sticky error to its
+ * subsystem describing what went wrong, which stays until the next system check clears faults.
+ *
+ * <p>The outcome and duration of every run, passed or not, are published under
+ * SystemStatus/Name/CheckSteps/Label and written to the fault log if it is enabled.
+ *
+ * <p>Steps don't require their subsystem, so independent steps of the same subsystem can run at
+ * the same time with {@link CheckSteps#parallel(AdvancedSubsystem, edu.wpi.first.wpilibj2.command.Command...)}.
+ * Use {@link CheckSteps} for common steps.
+ */
+public class CheckStep extends CommandBase {
+    private final AdvancedSubsystem subsystem;
+    private final String label;
+    private final Runnable start;
+    private final Runnable stop;
+    private final BooleanSupplier passed;
+    private final Supplier<String> failure;
+    private final double timeout;
+    private final Timer timer = new Timer();
+    private boolean hasPassed;
+    private Result result = Result.NOT_RUN;
+    private double duration;
+
+    /**
+     * Creates a new CheckStep.
+     *
+     * @param subsystem The subsystem the step checks, failures are added as its faults
+     * @param label     The name of the step, used in the fault if it fails
+     * @param start     Called when the step starts
+     * @param stop      Called when the step ends, however it ends
+     * @param passed    Whether the step has passed, checked every loop
+     * @param failure   Describes why the step failed, called once if it times out
+     * @param timeout   How long the step may take to pass, in seconds
+     */
+    public CheckStep(AdvancedSubsystem subsystem, String label, Runnable start, Runnable stop,
+                     BooleanSupplier passed, Supplier<String> failure, double timeout) {
+        this.subsystem = subsystem;
+        this.label = label;
+        this.start = start;
+        this.stop = stop;
+        this.passed = passed;
+        this.failure = failure;
+        this.timeout = timeout;
+        setName(label);
+        subsystem.registerCheckStep(label);
+    }
+
+    @Override
+    public void initialize() {
+        hasPassed = false;
+        result = Result.RUNNING;
+        duration = 0;
+        subsystem.recordCheckStep(label, result, duration);
+        timer.reset();
+        timer.start();
+        start.run();
+    }
+
+    @Override
+    public boolean isFinished() {
+        hasPassed = passed.getAsBoolean();
+        return hasPassed || timer.hasElapsed(timeout);
+    }
+
+    @Override
+    public void end(boolean interrupted) {
+        timer.stop();
+        stop.run();
+        duration = timer.get();
+        if (hasPassed) {
+            result = Result.PASSED;
+        } else if (interrupted) {
+            result = Result.INTERRUPTED;
+        } else {
+            result = Result.FAILED;
+            subsystem.addFault(String.format("[%s]: %s", label, failure.get()), false, true);
+        }
+        subsystem.recordCheckStep(label, result, duration);
+    }
+
+    /**
+     * @return The outcome of the latest run of the step
+     */
+    public Result getResult() {
+        return result;
+    }
+
+    /**
+     * @return How long the latest run of the step took, in seconds, 0 until it ends
+     */
+    public double getDuration() {
+        return duration;
+    }
+
+    /**
+     * The outcome of a run of a step
+     */
+    public enum Result {
+        /**
+         * The step has not run since it was created or the system check started
+         */
+        NOT_RUN,
+        /**
+         * The step is running
+         */
+        RUNNING,
+        /**
+         * The condition passed before the timeout
+         */
+        PASSED,
+        /**
+         * The condition did not pass before the timeout
+         */
+        FAILED,
+        /**
+         * The step was interrupted before it passed or timed out
+         */
+        INTERRUPTED
+    }
+}
@@ -0,0 +1,77 @@
+package com.northeasternrobotics.advancedsubsystems;
+
+import edu.wpi.first.networktables.DoublePublisher;
+import edu.wpi.first.networktables.NetworkTable;
+import edu.wpi.first.networktables.NetworkTableInstance;
+import edu.wpi.first.networktables.StringPublisher;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Publishes the outcome of each {@link CheckStep} of an AdvancedSubsystem under
+ * SystemStatus/Name/CheckSteps/Label: Result holds the name of the {@link CheckStep.Result} and
+ * Duration how long the step took, in seconds. Steps are published as NOT_RUN from when they are
+ * created, so a step that never ran can be told apart from one that passed.
+ *
+ * <p>Only used on the main robot loop, where commands run.
+ */
+final class CheckStepPublisher {
+    private final NetworkTable table;
+    private final Map<String, Step> steps = new LinkedHashMap<>();
+
+    /**
+     * Creates a new CheckStepPublisher.
+     *
+     * @param statusTable The table of the subsystem, relative to SmartDashboard
+     */
+    CheckStepPublisher(String statusTable) {
+        this.table = NetworkTableInstance.getDefault().getTable("SmartDashboard").getSubTable(statusTable + "/CheckSteps");
+    }
+
+    /**
+     * Publishes a step as not run, unless a step with the same label was already published.
+     *
+     * @param label The name of the step
+     */
+    void register(String label) {
+        if (!steps.containsKey(label)) {
+            steps.put(label, new Step(table.getSubTable(label)));
+        }
+    }
+
+    /**
+     * @param label    The name of the step
+     * @param result   The outcome of the step
+     * @param duration How long the step took, in seconds
+     */
+    void publish(String label, CheckStep.Result result, double duration) {
+        register(label);
+        steps.get(label).publish(result, duration);
+    }
+
+    /**
+     * Publishes every step as not run, called when a system check starts.
+     */
+    void reset() {
+        for (Step step : steps.values()) {
+            step.publish(CheckStep.Result.NOT_RUN, 0);
+        }
+    }
+
+    private static final class Step {
+        private final StringPublisher resultPublisher;
+        private final DoublePublisher durationPublisher;
+
+        Step(NetworkTable table) {
+            resultPublisher = table.getStringTopic("Result").publish();
+            durationPublisher = table.getDoubleTopic("Duration").publish();
+            publish(CheckStep.Result.NOT_RUN, 0);
+        }
+
+        void publish(CheckStep.Result result, double duration) {
+            resultPublisher.set(result.name());
+            durationPublisher.set(duration);
+        }
+    }
+}
@@ -0,0 +1,150 @@
+package com.northeasternrobotics.advancedsubsystems;
+
+import edu.wpi.first.wpilibj.Solenoid;
+import edu.wpi.first.wpilibj2.command.Command;
+import edu.wpi.first.wpilibj2.command.CommandBase;
+import edu.wpi.first.wpilibj2.command.Commands;
+
+import java.util.function.BooleanSupplier;
+import java.util.function.DoubleConsumer;
+import java.util.function.DoubleSupplier;
+
+/**
+ * Common system check steps, to build {@link AdvancedSubsystem#systemCheckCommand()} from
+ * instead of writing each check by hand.
+ *
+ * <p>systemCheckCommand() is called by the AdvancedSubsystem constructor, before the fields of
+ * the subclass are set, so refer to hardware through lambdas that read the field when the step
+ * runs. A method reference like {@code leftMotor::set} or passing {@code intakeSolenoid} itself
+ * would read the field while it is still null.
+ *
+ * <pre>{@code
+ * protected CommandBase systemCheckCommand() {
+ *     return CheckSteps.parallel(this,
+ *             CheckSteps.motorVelocity(this, "Left Drive", output -> leftMotor.set(output), 0.3,
+ *                     () -> leftEncoder.getVelocity(), 2.0, 4.0, 2.0),
+ *             CheckSteps.motorVelocity(this, "Right Drive", output -> rightMotor.set(output), 0.3,
+ *                     () -> rightEncoder.getVelocity(), 2.0, 4.0, 2.0),
+ *             CheckSteps.sensorChange(this, "Intake Deploy", () -> intakeSolenoid.set(true),
+ *                     () -> intakeSolenoid.set(false), () -> intakeDeployedSwitch.get(), 1.0));
+ * }
+ * }</pre>
+ */
+public final class CheckSteps {
+    private CheckSteps() {
+    }
+
+    /**
+     * Runs a motor and checks that its velocity reaches a range, then stops the motor.
+     *
+     * @param subsystem   The subsystem the motor belongs to
+     * @param label       The name of the step
+     * @param motor       Sets the motor output
+     * @param output      The output to run the motor at, usually -1 to 1
+     * @param velocity    The velocity of the mechanism, in any unit
+     * @param minVelocity The lowest velocity that passes
+     * @param maxVelocity The highest velocity that passes
+     * @param timeout     How long the motor may take to reach the range, in seconds
+     * @return The check step
+     */
+    public static CheckStep motorVelocity(AdvancedSubsystem subsystem, String label, DoubleConsumer motor,
+                                          double output, DoubleSupplier velocity, double minVelocity,
+                                          double maxVelocity, double timeout) {
+        return new CheckStep(subsystem, label,
+                () -> motor.accept(output),
+                () -> motor.accept(0),
+                () -> {
+                    double v = velocity.getAsDouble();
+                    return v >= minVelocity && v <= maxVelocity;
+                },
+                () -> String.format("Velocity %.2f not between %.2f and %.2f at output %.2f",
+                        velocity.getAsDouble(), minVelocity, maxVelocity, output),
+                timeout);
+    }
+
+    /**
+     * Actuates something and checks that a sensor changes from the value it had when the step
+     * started, then releases it.
+     *
+     * @param subsystem The subsystem the mechanism belongs to
+     * @param label     The name of the step
+     * @param actuate   Actuates the mechanism
+     * @param release   Returns the mechanism to where it started
+     * @param sensor    The sensor that should change
+     * @param timeout   How long the sensor may take to change, in seconds
+     * @return The check step
+     */
+    public static CheckStep sensorChange(AdvancedSubsystem subsystem, String label, Runnable actuate,
+                                         Runnable release, BooleanSupplier sensor, double timeout) {
+        boolean[] initial = new boolean[1];
+        return new CheckStep(subsystem, label,
+                () -> {
+                    initial[0] = sensor.getAsBoolean();
+                    actuate.run();
+                },
+                release,
+                () -> sensor.getAsBoolean() != initial[0],
+                () -> String.format("Sensor stayed %b", initial[0]),
+                timeout);
+    }
+
+    /**
+     * Extends a solenoid and checks that a sensor changes, then retracts it. The solenoid must
+     * already exist, so this can't be used from systemCheckCommand() with a solenoid field of the
+     * subsystem, use {@link #sensorChange} with lambdas instead.
+     *
+     * @param subsystem The subsystem the solenoid belongs to
+     * @param label     The name of the step
+     * @param solenoid  The solenoid
+     * @param sensor    The sensor that should change when the solenoid extends
+     * @param timeout   How long the sensor may take to change, in seconds
+     * @return The check step
+     */
+    public static CheckStep solenoid(AdvancedSubsystem subsystem, String label, Solenoid solenoid,
+                                     BooleanSupplier sensor, double timeout) {
+        return sensorChange(subsystem, label, () -> solenoid.set(true), () -> solenoid.set(false), sensor, timeout);
+    }
+
+    /**
+     * Waits for a condition to become true.
+     *
+     * @param subsystem The subsystem the condition belongs to
+     * @param label     The name of the step
+     * @param condition The condition
+     * @param timeout   How long the condition may take to become true, in seconds
+     * @return The check step
+     */
+    public static CheckStep condition(AdvancedSubsystem subsystem, String label, BooleanSupplier condition,
+                                      double timeout) {
+        return new CheckStep(subsystem, label, () -> {
+        }, () -> {
+        }, condition, () -> "Condition not met", timeout);
+    }
+
+    /**
+     * Runs independent steps of a subsystem at the same time, finishing when every step has.
+     * The group requires the subsystem so nothing else uses it during the check.
+     *
+     * @param subsystem The subsystem the steps check
+     * @param steps     The steps, which must not use the same hardware
+     * @return The group of steps
+     */
+    public static CommandBase parallel(AdvancedSubsystem subsystem, Command... steps) {
+        CommandBase group = Commands.parallel(steps);
+        group.addRequirements(subsystem);
+        return group;
+    }
+
+    /**
+     * Runs steps of a subsystem one after another.
+     *
+     * @param subsystem The subsystem the steps check
+     * @param steps     The steps
+     * @return The sequence of steps
+     */
+    public static CommandBase sequence(AdvancedSubsystem subsystem, Command... steps) {
+        CommandBase group = Commands.sequence(steps);
+        group.addRequirements(subsystem);
+        return group;
+    }
+}
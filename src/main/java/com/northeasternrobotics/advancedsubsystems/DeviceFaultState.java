@@ -0,0 +1,231 @@
+package com.northeasternrobotics.advancedsubsystems;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+
+/**
+ * The active faults of a device, as a word with one bit per distinct fault. Bits are assigned in
+ * the order faults are first reported, and the description of each bit is kept in the metadata
+ * of the device's log entry. The word is only logged when it changes, so a rising edge sets a
+ * bit and a falling edge clears it.
+ *
+ * <p>Reports are debounced with the settings of each {@link FaultKind}: a fault becomes active
+ * after being reported by enough checks in a row, and stays active until enough checks in a row
+ * don't report it and it has been active for its minimum hold time. The counters are kept in
+ * arrays indexed by bit, so debouncing never allocates.
+ *
+ * <p>Devices that report a whole fault word are diffed against their previous word: the bits of
+ * the device are mapped to bits of the log word the first time they rise, and an unchanged word
+ * reuses the previous mapping without looking at any descriptor. The mapping is kept for each of
+ * the last {@link #WORD_TABLES} tables a device reported, so a device that reports several words
+ * per check doesn't remap them on every call. Bits past the end of a table, or whose descriptor
+ * is null, are ignored.
+ *
+ * <p>The last bit is kept for {@link #OTHER_FAULTS}: once a device has reported 63 distinct
+ * faults, any further ones are reported as that fault of the device and counted, rather than
+ * being mixed up with one of the faults already known.
+ */
+final class DeviceFaultState {
+    /**
+     * Reported in place of the faults a device reports once it has used up every other bit.
+     */
+    static final FaultKind OTHER_FAULTS = new FaultKind("Other faults, too many kinds to track");
+    /**
+     * The bit of {@link #OTHER_FAULTS}.
+     */
+    static final int OTHER_FAULTS_BIT = Long.SIZE - 1;
+    /**
+     * How many fault word tables of a device are mapped at once.
+     */
+    static final int WORD_TABLES = 4;
+
+    private final FaultLog.DeviceEntry entry;
+    private final String label;
+    private final FaultDescriptor[] known = new FaultDescriptor[Long.SIZE];
+    private final int[] raiseStreaks = new int[Long.SIZE];
+    private final int[] clearStreaks = new int[Long.SIZE];
+    private final double[] raisedAt = new double[Long.SIZE];
+    private int knownCount;
+    private long otherReports;
+    private long active;
+    private long reported;
+    // Mapping of the fault words the device reported, one slot per table
+    private final FaultDescriptor[][] wordTables = new FaultDescriptor[WORD_TABLES][];
+    private final int[][] wordIndex = new int[WORD_TABLES][Long.SIZE];
+    private final long[] usableBits = new long[WORD_TABLES];
+    private final long[] mappedBits = new long[WORD_TABLES];
+    private final long[] lastWord = new long[WORD_TABLES];
+    private final long[] lastMapped = new long[WORD_TABLES];
+    private int nextWordTable;
+
+    /**
+     * Creates a new DeviceFaultState.
+     *
+     * @param label The name of the device
+     * @param entry The entry to log the active fault word to
+     */
+    DeviceFaultState(String label, FaultLog.DeviceEntry entry) {
+        this.label = label;
+        this.entry = entry;
+    }
+
+    /**
+     * Starts collecting the faults reported by a check.
+     */
+    void begin() {
+        reported = 0;
+    }
+
+    /**
+     * @param descriptor A fault reported by the check
+     */
+    void report(FaultDescriptor descriptor) {
+        reported |= 1L << indexOf(descriptor);
+    }
+
+    /**
+     * @param bits        A word of faults reported by the check, with bit i set when the i-th
+     *                    fault is active
+     * @param descriptors The descriptor of each bit, the same array on every check
+     */
+    void reportWord(long bits, FaultDescriptor[] descriptors) {
+        int table = wordTable(descriptors);
+        bits &= usableBits[table];
+        if (bits != lastWord[table]) {
+            int[] index = wordIndex[table];
+            long unmapped = bits & ~mappedBits[table];
+            while (unmapped != 0) {
+                int bit = Long.numberOfTrailingZeros(unmapped);
+                index[bit] = indexOf(descriptors[bit]);
+                unmapped &= unmapped - 1;
+            }
+            mappedBits[table] |= bits;
+
+            long mapped = 0;
+            long remaining = bits;
+            while (remaining != 0) {
+                mapped |= 1L << index[Long.numberOfTrailingZeros(remaining)];
+                remaining &= remaining - 1;
+            }
+            lastWord[table] = bits;
+            lastMapped[table] = mapped;
+        }
+        reported |= lastMapped[table];
+    }
+
+    // The slot mapping a table, replacing the oldest mapped table if it is new
+    private int wordTable(FaultDescriptor[] descriptors) {
+        for (int i = 0; i < WORD_TABLES; i++) {
+            if (wordTables[i] == descriptors) {
+                return i;
+            }
+        }
+        int table = nextWordTable;
+        nextWordTable = (nextWordTable + 1) % WORD_TABLES;
+        long usable = 0;
+        for (int bit = 0; bit < Math.min(descriptors.length, Long.SIZE); bit++) {
+            if (descriptors[bit] != null) {
+                usable |= 1L << bit;
+            }
+        }
+        wordTables[table] = descriptors;
+        usableBits[table] = usable;
+        mappedBits[table] = 0;
+        lastWord[table] = 0;
+        lastMapped[table] = 0;
+        return table;
+    }
+
+    /**
+     * Finishes a check, updating the active faults and logging them if they changed.
+     *
+     * @param timestamp The time of the check
+     */
+    void end(double timestamp) {
+        long next = 0;
+        for (int i = 0; i < knownCount; i++) {
+            long bit = 1L << i;
+            FaultKind kind = known[i].kind;
+            if ((reported & bit) != 0) {
+                clearStreaks[i] = 0;
+                if ((active & bit) != 0) {
+                    next |= bit;
+                } else if (++raiseStreaks[i] >= kind.raiseCount) {
+                    raiseStreaks[i] = 0;
+                    raisedAt[i] = timestamp;
+                    next |= bit;
+                }
+            } else {
+                raiseStreaks[i] = 0;
+                if ((active & bit) != 0) {
+                    if (++clearStreaks[i] < kind.clearCount || timestamp - raisedAt[i] < kind.minHoldTime) {
+                        next |= bit;
+                    } else {
+                        clearStreaks[i] = 0;
+                    }
+                }
+            }
+        }
+
+        if (next != active) {
+            active = next;
+            entry.append(active, timestamp);
+        }
+    }
+
+    /**
+     * @return The active faults, as a word with one bit per fault
+     */
+    long getActive() {
+        return active;
+    }
+
+    /**
+     * @param index The bit of a fault
+     * @return The fault
+     */
+    FaultDescriptor getFault(int index) {
+        return known[index];
+    }
+
+    /**
+     * @return How many times a fault was reported as {@link #OTHER_FAULTS} because every other
+     * bit was already in use
+     */
+    long getOtherReports() {
+        return otherReports;
+    }
+
+    private int indexOf(FaultDescriptor descriptor) {
+        for (int i = 0; i < knownCount; i++) {
+            if (known[i] == descriptor) {
+                return i;
+            }
+        }
+        for (int i = 0; i < knownCount; i++) {
+            if (known[i].equals(descriptor)) {
+                return i;
+            }
+        }
+        if (knownCount >= OTHER_FAULTS_BIT) {
+            if (knownCount == OTHER_FAULTS_BIT) {
+                add(new FaultDescriptor(label, OTHER_FAULTS));
+            }
+            otherReports++;
+            return OTHER_FAULTS_BIT;
+        }
+        return add(descriptor);
+    }
+
+    private int add(FaultDescriptor descriptor) {
+        known[knownCount] = descriptor;
+        JSONArray faults = new JSONArray();
+        for (int i = 0; i <= knownCount; i++) {
+            faults.put(new JSONObject()
+                    .put("description", known[i].description)
+                    .put("isWarning", known[i].isWarning));
+        }
+        entry.setMetadata(new JSONObject().put("faults", faults).toString());
+        return knownCount++;
+    }
+}
@@ -0,0 +1,120 @@
+package com.northeasternrobotics.advancedsubsystems;
+
+import edu.wpi.first.networktables.NetworkTable;
+import edu.wpi.first.networktables.NetworkTableInstance;
+import edu.wpi.first.networktables.StringPublisher;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+
+/**
+ * Numbers every distinct fault kind and device across the robot, so faults can be sent as
+ * integers. The text of each number is published once, as its own topic under
+ * SmartDashboard/SystemStatus/Codes/Faults and Devices, when it is first used.
+ *
+ * <p>Both tables are bounded, so subsystems that add faults with formatted descriptions can't grow
+ * them forever. Once a table is full, new fault kinds get {@link #OTHER_FAULT} and new devices
+ * get {@link #OTHER_DEVICE}, whose text says the table is full, so they can't be mistaken for
+ * a fault or device of the same name. Device 0 is only used for faults not tied to a device.
+ */
+final class FaultCodes {
+    /**
+     * The most fault codes handed out, including {@link #OTHER_FAULT}.
+     */
+    static final int MAX_FAULT_CODES = 512;
+    /**
+     * The most device IDs handed out, including {@link #NO_DEVICE} and {@link #OTHER_DEVICE}.
+     */
+    static final int MAX_DEVICE_IDS = 256;
+    /**
+     * The code of every fault kind seen after the table filled up.
+     */
+    static final int OTHER_FAULT = 0;
+    /**
+     * The ID of faults that are not tied to a device.
+     */
+    static final int NO_DEVICE = 0;
+    /**
+     * The ID of every device seen after the table filled up.
+     */
+    static final int OTHER_DEVICE = 1;
+
+    private static final HashMap<String, Integer> faultCodes = new HashMap<>();
+    private static final List<String> faults = new ArrayList<>(List.of("Unknown fault (code table full)"));
+    private static final HashMap<String, Integer> deviceIds = new HashMap<>();
+    private static final List<String> devices = new ArrayList<>(List.of("", "Unknown device (ID table full)"));
+    // Publishers are kept so the topics stay published
+    private static final List<StringPublisher> publishers = new ArrayList<>();
+    private static int publishedFaults;
+    private static int publishedDevices;
+    private static NetworkTable faultsTable;
+    private static NetworkTable devicesTable;
+
+    private FaultCodes() {
+    }
+
+    /**
+     * @param description The description of a kind of fault
+     * @return The code of the fault kind, assigned on first use, or {@link #OTHER_FAULT} once
+     * {@link #MAX_FAULT_CODES} are in use
+     */
+    static synchronized int faultCode(String description) {
+        Integer code = faultCodes.get(description);
+        if (code == null) {
+            if (faults.size() >= MAX_FAULT_CODES) {
+                return OTHER_FAULT;
+            }
+            code = faults.size();
+            faultCodes.put(description, code);
+            faults.add(description);
+        }
+        return code;
+    }
+
+    /**
+     * @param device The name of a device, or null for faults not tied to a device
+     * @return The ID of the device, assigned on first use, {@link #NO_DEVICE} for null, or
+     * {@link #OTHER_DEVICE} once {@link #MAX_DEVICE_IDS} are in use
+     */
+    static synchronized int deviceId(String device) {
+        if (device == null) {
+            return NO_DEVICE;
+        }
+        Integer id = deviceIds.get(device);
+        if (id == null) {
+            if (devices.size() >= MAX_DEVICE_IDS) {
+                return OTHER_DEVICE;
+            }
+            id = devices.size();
+            deviceIds.put(device, id);
+            devices.add(device);
+        }
+        return id;
+    }
+
+    /**
+     * Publishes the codes and device IDs added since they were last published.
+     */
+    static synchronized void publish() {
+        if (publishedFaults == faults.size() && publishedDevices == devices.size()) {
+            return;
+        }
+        if (faultsTable == null) {
+            NetworkTable table = NetworkTableInstance.getDefault().getTable("SmartDashboard").getSubTable("SystemStatus/Codes");
+            faultsTable = table.getSubTable("Faults");
+            devicesTable = table.getSubTable("Devices");
+        }
+        publishedFaults = publishNew(faultsTable, faults, publishedFaults);
+        publishedDevices = publishNew(devicesTable, devices, publishedDevices);
+    }
+
+    private static int publishNew(NetworkTable table, List<String> entries, int published) {
+        for (int i = published; i < entries.size(); i++) {
+            StringPublisher publisher = table.getStringTopic(Integer.toString(i)).publish();
+            publisher.set(entries.get(i));
+            publishers.add(publisher);
+        }
+        return entries.size();
+    }
+}
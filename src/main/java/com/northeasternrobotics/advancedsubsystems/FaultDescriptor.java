@@ -0,0 +1,94 @@
+package com.northeasternrobotics.advancedsubsystems;
+
+/**
+ * A fault that a specific device can report. Descriptors are built once when the device is
+ * registered, so reporting a fault that is already recorded does not allocate.
+ */
+public class FaultDescriptor {
+    /**
+     * The name of the device reporting the fault, or null if the fault is not tied to a device.
+     */
+    public final String device;
+    /**
+     * The kind of fault.
+     */
+    public final FaultKind kind;
+    /**
+     * A description of the fault, including the device label.
+     */
+    public final String description;
+    /**
+     * Whether the fault is a warning or an error.
+     */
+    public final boolean isWarning;
+    /**
+     * Whether the fault is sticky.
+     */
+    public final boolean sticky;
+    /**
+     * The robot-wide ID of the device, 0 if the fault is not tied to a device.
+     */
+    public final int deviceId;
+    /**
+     * The robot-wide code of the kind of fault.
+     */
+    public final int code;
+    private final int hash;
+
+    /**
+     * Creates a new FaultDescriptor for a device.
+     *
+     * @param device The name of the device
+     * @param kind   The kind of fault
+     */
+    public FaultDescriptor(String device, FaultKind kind) {
+        this(device, kind, String.format("[%s]: %s", device, kind.description));
+    }
+
+    /**
+     * Creates a new FaultDescriptor that is not tied to a device.
+     *
+     * @param description A description of the fault.
+     * @param isWarning   Whether the fault is a warning or an error.
+     * @param sticky      Whether the fault is sticky.
+     */
+    public FaultDescriptor(String description, boolean isWarning, boolean sticky) {
+        this(null, new FaultKind(description, isWarning, sticky), description);
+    }
+
+    private FaultDescriptor(String device, FaultKind kind, String description) {
+        this.device = device;
+        this.kind = kind;
+        this.description = description;
+        this.isWarning = kind.isWarning;
+        this.sticky = kind.sticky;
+        this.deviceId = FaultCodes.deviceId(device);
+        this.code = FaultCodes.faultCode(kind.description);
+        this.hash = 31 * description.hashCode() + Boolean.hashCode(isWarning);
+    }
+
+    /**
+     * Checks if an objects is equal.
+     *
+     * @param other The object to compare to.
+     * @return Whether the objects are equal.
+     */
+    @Override
+    public boolean equals(Object other) {
+        if (other == this) {
+            return true;
+        }
+
+        if (other instanceof FaultDescriptor) {
+            FaultDescriptor o = (FaultDescriptor) other;
+
+            return hash == o.hash && description.equals(o.description) && isWarning == o.isWarning;
+        }
+        return false;
+    }
+
+    @Override
+    public int hashCode() {
+        return hash;
+    }
+}
@@ -0,0 +1,135 @@
+package com.northeasternrobotics.advancedsubsystems;
+
+import com.northeasternrobotics.advancedsubsystems.AdvancedSubsystem.SystemStatus;
+import edu.wpi.first.wpilibj.DriverStation;
+
+import java.util.List;
+
+/**
+ * A bounded queue of fault events from the thread that records faults to the main robot loop.
+ * It is lock free for one producer and one consumer and never allocates: events are stored in
+ * preallocated slots, and when the consumer falls behind new events are dropped and counted
+ * instead of blocking the checks. Once the queue drains after dropping events, every listener is
+ * resynced with the subsystem's current faults and status, so it never stays out of step.
+ */
+final class FaultEventQueue {
+    private static final int RAISED = 0;
+    private static final int CLEARED = 1;
+    private static final int STATUS_CHANGED = 2;
+
+    private final int mask;
+    private final int[] types;
+    private final SubsystemFault[] faults;
+    private final SystemStatus[] statuses;
+    // Only written by the consumer
+    private volatile long head;
+    // Only written by the producer
+    private volatile long tail;
+    private volatile int dropped;
+    private int reportedDropped;
+
+    /**
+     * Creates a new FaultEventQueue.
+     *
+     * @param capacity The number of events the queue holds, rounded up to a power of two
+     */
+    FaultEventQueue(int capacity) {
+        int size = Integer.highestOneBit(Math.max(capacity - 1, 1)) << 1;
+        this.mask = size - 1;
+        this.types = new int[size];
+        this.faults = new SubsystemFault[size];
+        this.statuses = new SystemStatus[size];
+    }
+
+    /**
+     * @param fault A fault that was recorded
+     */
+    void faultRaised(SubsystemFault fault) {
+        offer(RAISED, fault, null);
+    }
+
+    /**
+     * @param fault A fault that was removed
+     */
+    void faultCleared(SubsystemFault fault) {
+        offer(CLEARED, fault, null);
+    }
+
+    /**
+     * @param status The new status
+     */
+    void statusChanged(SystemStatus status) {
+        offer(STATUS_CHANGED, null, status);
+    }
+
+    private void offer(int type, SubsystemFault fault, SystemStatus status) {
+        long t = tail;
+        if (t - head > mask) {
+            dropped++;
+            return;
+        }
+        int i = (int) t & mask;
+        types[i] = type;
+        faults[i] = fault;
+        statuses[i] = status;
+        tail = t + 1;
+    }
+
+    /**
+     * Delivers every queued event to the listeners.
+     *
+     * @param subsystem The subsystem the events are from
+     * @param listeners The listeners to deliver to
+     */
+    void dispatch(AdvancedSubsystem subsystem, List<FaultListener> listeners) {
+        long h = head;
+        long t = tail;
+        while (h < t) {
+            int i = (int) h & mask;
+            int type = types[i];
+            SubsystemFault fault = faults[i];
+            SystemStatus status = statuses[i];
+            faults[i] = null;
+            statuses[i] = null;
+            head = ++h;
+            for (int l = 0; l < listeners.size(); l++) {
+                try {
+                    deliver(listeners.get(l), subsystem, type, fault, status);
+                } catch (RuntimeException e) {
+                    DriverStation.reportError("Fault listener failed: " + e, e.getStackTrace());
+                }
+            }
+        }
+
+        int droppedNow = dropped;
+        if (droppedNow != reportedDropped) {
+            DriverStation.reportWarning(String.format("%s dropped %d fault events, listeners are falling behind",
+                    subsystem.getName(), droppedNow - reportedDropped), false);
+            reportedDropped = droppedNow;
+            List<SubsystemFault> current = subsystem.getFaults();
+            SystemStatus status = subsystem.getSystemStatus();
+            for (int l = 0; l < listeners.size(); l++) {
+                try {
+                    listeners.get(l).resynced(subsystem, current, status);
+                } catch (RuntimeException e) {
+                    DriverStation.reportError("Fault listener failed: " + e, e.getStackTrace());
+                }
+            }
+        }
+    }
+
+    private static void deliver(FaultListener listener, AdvancedSubsystem subsystem, int type,
+                                SubsystemFault fault, SystemStatus status) {
+        switch (type) {
+            case RAISED:
+                listener.faultRaised(subsystem, fault);
+                break;
+            case CLEARED:
+                listener.faultCleared(subsystem, fault);
+                break;
+            default:
+                listener.statusChanged(subsystem, status);
+                break;
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package com.northeasternrobotics.advancedsubsystems;
+
+/**
+ * A kind of fault that a type of device can report, shared by every device of that type.
+ */
+public class FaultKind {
+    /**
+     * A description of the fault, without the device label.
+     */
+    public final String description;
+    /**
+     * Whether the fault is a warning or an error.
+     */
+    public final boolean isWarning;
+    /**
+     * Whether the fault is sticky.
+     */
+    public final boolean sticky;
+    /**
+     * How many checks in a row must report the fault before it is recorded.
+     */
+    public final int raiseCount;
+    /**
+     * How many checks in a row must not report the fault before it stops being recorded.
+     */
+    public final int clearCount;
+    /**
+     * How long the fault keeps being recorded once raised, even if it clears, in seconds.
+     */
+    public final double minHoldTime;
+
+    /**
+     * Creates a new FaultKind.
+     *
+     * @param description A description of the fault.
+     */
+    public FaultKind(String description) {
+        this(description, false);
+    }
+
+    /**
+     * Creates a new FaultKind.
+     *
+     * @param description A description of the fault.
+     * @param isWarning   Whether the fault is a warning or an error.
+     */
+    public FaultKind(String description, boolean isWarning) {
+        this(description, isWarning, false);
+    }
+
+    /**
+     * Creates a new FaultKind.
+     *
+     * @param description A description of the fault.
+     * @param isWarning   Whether the fault is a warning or an error.
+     * @param sticky      Whether the fault is sticky.
+     */
+    public FaultKind(String description, boolean isWarning, boolean sticky) {
+        this(description, isWarning, sticky, 1, 1, 0);
+    }
+
+    /**
+     * Creates a new FaultKind that is debounced, so a fault that comes and goes is recorded
+     * once instead of being raised and cleared over and over.
+     *
+     * @param description A description of the fault.
+     * @param isWarning   Whether the fault is a warning or an error.
+     * @param sticky      Whether the fault is sticky.
+     * @param raiseCount  How many checks in a row must report the fault before it is recorded.
+     * @param clearCount  How many checks in a row must not report the fault before it clears.
+     * @param minHoldTime How long the fault stays raised at least, in seconds.
+     */
+    public FaultKind(String description, boolean isWarning, boolean sticky, int raiseCount, int clearCount,
+                     double minHoldTime) {
+        if (raiseCount < 1 || clearCount < 1) {
+            throw new IllegalArgumentException("Debounce counts must be positive");
+        }
+        this.description = description;
+        this.isWarning = isWarning;
+        this.sticky = sticky;
+        this.raiseCount = raiseCount;
+        this.clearCount = clearCount;
+        this.minHoldTime = minHoldTime;
+    }
+
+    /**
+     * @param raiseCount  How many checks in a row must report the fault before it is recorded.
+     * @param clearCount  How many checks in a row must not report the fault before it clears.
+     * @param minHoldTime How long the fault stays raised at least, in seconds.
+     * @return A copy of this kind with the given debounce settings.
+     */
+    public FaultKind withDebounce(int raiseCount, int clearCount, double minHoldTime) {
+        return new FaultKind(description, isWarning, sticky, raiseCount, clearCount, minHoldTime);
+    }
+}
@@ -0,0 +1,57 @@
+package com.northeasternrobotics.advancedsubsystems;
+
+import com.northeasternrobotics.advancedsubsystems.AdvancedSubsystem.SystemStatus;
+
+import java.util.List;
+
+/**
+ * Receives fault events from an AdvancedSubsystem, registered with
+ * {@link AdvancedSubsystem#addFaultListener(FaultListener)}. Each event is delivered exactly once,
+ * in the order it happened, on the main robot loop.
+ */
+public interface FaultListener {
+    /**
+     * Called when a fault is first recorded.
+     *
+     * @param subsystem The subsystem that recorded the fault
+     * @param fault     The fault
+     */
+    default void faultRaised(AdvancedSubsystem subsystem, SubsystemFault fault) {
+    }
+
+    /**
+     * Called when a recorded fault expires or the faults are cleared.
+     *
+     * @param subsystem The subsystem that recorded the fault
+     * @param fault     The fault
+     */
+    default void faultCleared(AdvancedSubsystem subsystem, SubsystemFault fault) {
+    }
+
+    /**
+     * Called when the status of the subsystem changes.
+     *
+     * @param subsystem The subsystem
+     * @param status    The new status
+     */
+    default void statusChanged(AdvancedSubsystem subsystem, SystemStatus status) {
+    }
+
+    /**
+     * Called in place of events that were dropped because listeners fell too far behind, after
+     * the events that were kept. Anything the listener tracks about the subsystem should be
+     * rebuilt from the faults and status given here. By default every current fault is raised
+     * again and the status is delivered, so a listener that only reacts to faults being raised
+     * doesn't miss any.
+     *
+     * @param subsystem The subsystem
+     * @param faults    The faults the subsystem has recorded now
+     * @param status    The status of the subsystem now
+     */
+    default void resynced(AdvancedSubsystem subsystem, List<SubsystemFault> faults, SystemStatus status) {
+        for (SubsystemFault fault : faults) {
+            faultRaised(subsystem, fault);
+        }
+        statusChanged(subsystem, status);
+    }
+}
@@ -0,0 +1,162 @@
+package com.northeasternrobotics.advancedsubsystems;
+
+import com.northeasternrobotics.advancedsubsystems.AdvancedSubsystem.SystemStatus;
+import edu.wpi.first.util.datalog.DataLog;
+import edu.wpi.first.util.datalog.IntegerLogEntry;
+import edu.wpi.first.util.datalog.StringLogEntry;
+
+/**
+ * Records the fault history of an AdvancedSubsystem to a WPILib DataLog, so it survives
+ * {@link AdvancedSubsystem#clearFaults()} and reboots. Nothing is logged until a log is given to
+ * {@link #enable(DataLog)}, entries are created in it the first time they are written.
+ *
+ * <p>Entries are written under SystemStatus/Name: Status holds the ordinal of the
+ * {@link SystemStatus} each time it changes, Faults and ClearedFaults hold the description of
+ * each fault added by the subsystem itself when it is recorded and when it expires or is cleared,
+ * CheckSteps holds "Label: RESULT (seconds)" each time a system check step ends, and
+ * Devices/Label holds the active fault word of each device (see {@link DeviceFaultState}).
+ */
+final class FaultLog {
+    private static volatile DataLog log;
+
+    private final String prefix;
+    // The log the entries below were created in
+    private DataLog openLog;
+    private IntegerLogEntry statusEntry;
+    private StringLogEntry faultEntry;
+    private StringLogEntry clearedEntry;
+    private StringLogEntry checkStepEntry;
+    private SystemStatus lastStatus;
+
+    /**
+     * Creates a new FaultLog.
+     *
+     * @param name The name of the subsystem
+     */
+    FaultLog(String name) {
+        this.prefix = "SystemStatus/" + name + "/";
+    }
+
+    /**
+     * Starts logging the fault history of every subsystem.
+     *
+     * @param log The log to write to, or null to stop logging
+     */
+    static void enable(DataLog log) {
+        FaultLog.log = log;
+    }
+
+    /**
+     * @param label The name of the device
+     * @return The entry for the active faults of the device
+     */
+    DeviceEntry createDeviceEntry(String label) {
+        return new DeviceEntry(prefix + "Devices/" + label);
+    }
+
+    /**
+     * Records the status if it changed since it was last recorded.
+     *
+     * @param status The status of the subsystem
+     */
+    void logStatus(SystemStatus status) {
+        if (status != lastStatus && open()) {
+            lastStatus = status;
+            statusEntry.append(status.ordinal());
+        }
+    }
+
+    /**
+     * Records a fault added by the subsystem itself.
+     *
+     * @param fault The fault
+     */
+    void logFault(SubsystemFault fault) {
+        if (open()) {
+            faultEntry.append(fault.description);
+        }
+    }
+
+    /**
+     * Records that a fault added by the subsystem itself expired or was cleared.
+     *
+     * @param fault The fault
+     */
+    void logCleared(SubsystemFault fault) {
+        if (open()) {
+            clearedEntry.append(fault.description);
+        }
+    }
+
+    /**
+     * Records the outcome of a system check step.
+     *
+     * @param label    The name of the step
+     * @param result   The outcome of the step
+     * @param duration How long the step took, in seconds
+     */
+    void logCheckStep(String label, CheckStep.Result result, double duration) {
+        if (open()) {
+            checkStepEntry.append(String.format("%s: %s (%.2fs)", label, result.name(), duration));
+        }
+    }
+
+    private boolean open() {
+        DataLog current = log;
+        if (current == null) {
+            return false;
+        }
+        if (current != openLog) {
+            openLog = current;
+            statusEntry = new IntegerLogEntry(current, prefix + "Status");
+            faultEntry = new StringLogEntry(current, prefix + "Faults");
+            clearedEntry = new StringLogEntry(current, prefix + "ClearedFaults");
+            checkStepEntry = new StringLogEntry(current, prefix + "CheckSteps");
+            lastStatus = null;
+        }
+        return true;
+    }
+
+    /**
+     * The entry for the active fault word of a device, created the first time it is written.
+     */
+    static final class DeviceEntry {
+        private final String name;
+        private DataLog openLog;
+        private IntegerLogEntry entry;
+        private String metadata;
+
+        private DeviceEntry(String name) {
+            this.name = name;
+        }
+
+        /**
+         * @param word      The active fault word
+         * @param timestamp The time it became active, in seconds
+         */
+        void append(long word, double timestamp) {
+            DataLog current = log;
+            if (current == null) {
+                return;
+            }
+            if (current != openLog) {
+                openLog = current;
+                entry = new IntegerLogEntry(current, name);
+                if (metadata != null) {
+                    entry.setMetadata(metadata);
+                }
+            }
+            entry.append(word, (long) (timestamp * 1e6));
+        }
+
+        /**
+         * @param metadata The description of each bit of the word
+         */
+        void setMetadata(String metadata) {
+            this.metadata = metadata;
+            if (entry != null && openLog == log) {
+                entry.setMetadata(metadata);
+            }
+        }
+    }
+}
@@ -0,0 +1,449 @@
+package com.northeasternrobotics.advancedsubsystems;
+
+import com.northeasternrobotics.advancedsubsystems.selfcheck.FaultSink;
+import edu.wpi.first.wpilibj.DriverStation;
+import edu.wpi.first.wpilibj.Notifier;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Records what every device reported on every check to a compact binary file, so a match can be
+ * fed back through the same fault handling later with {@link FaultReplay}. Checks are recorded
+ * with the timestamp the scheduler checked them at, and each fault word and descriptor table is
+ * written once and referred to by number after that.
+ *
+ * <p>Recording is off until {@link #start(Path)} is called. While it is off, checks only pay for
+ * one volatile read. While it is on, each check is copied into a preallocated slot, and a low
+ * priority thread encodes the slots and writes them to the file every {@link #WRITE_PERIOD}, so
+ * slow storage never stalls the checks. If the writer falls a whole buffer behind, new records are
+ * dropped and counted instead.
+ */
+public final class FaultRecorder {
+    static final int MAGIC = 0x41534652;
+    static final int VERSION = 1;
+    static final int CYCLE = 'Y';
+    static final int DEVICE = 'D';
+    static final int TABLE = 'T';
+    static final int FAULT = 'F';
+    static final int CHECK = 'C';
+    static final int ITEM_WORD = 0;
+    static final int ITEM_FAULT = 1;
+    /**
+     * How often buffered records are written to the file, in seconds.
+     */
+    static final double WRITE_PERIOD = 0.1;
+    /**
+     * The number of records buffered between writes, rounded up to a power of two.
+     */
+    static final int CAPACITY = 4096;
+
+    private static final int BUFFER_SIZE = 1 << 16;
+    private static final AtomicReference<FaultRecorder> active = new AtomicReference<>();
+
+    // Filled by the checking threads under the recorder's lock, read by the writer between head and tail
+    private final int mask;
+    private final Record[] records;
+    private long head;
+    private long tail;
+    private int dropped;
+
+    // Only used by the writer, under writeLock
+    private final Object writeLock = new Object();
+    private final DataOutputStream out;
+    private final IdentityHashMap<MonitoredDevice, Integer> devices = new IdentityHashMap<>();
+    private final IdentityHashMap<FaultDescriptor[], Integer> tables = new IdentityHashMap<>();
+    private final IdentityHashMap<FaultDescriptor, Integer> faults = new IdentityHashMap<>();
+    private long lastMicros;
+    private int reportedDropped;
+    private boolean closed;
+    private Notifier notifier;
+
+    private FaultRecorder(OutputStream stream) throws IOException {
+        this.out = new DataOutputStream(new BufferedOutputStream(stream, BUFFER_SIZE));
+        out.writeInt(MAGIC);
+        out.writeByte(VERSION);
+        int size = Integer.highestOneBit(CAPACITY - 1) << 1;
+        this.mask = size - 1;
+        this.records = new Record[size];
+        for (int i = 0; i < size; i++) {
+            records[i] = new Record();
+        }
+    }
+
+    /**
+     * Starts recording every device check to a file, replacing any recording in progress.
+     *
+     * @param file The file to record to, overwritten if it exists
+     * @throws IOException If the file could not be created
+     */
+    public static void start(Path file) throws IOException {
+        start(Files.newOutputStream(file), true);
+    }
+
+    /**
+     * Starts recording every device check to a stream, replacing any recording in progress.
+     *
+     * @param stream            The stream to record to, closed when recording stops
+     * @param writeInBackground Whether to write records every {@link #WRITE_PERIOD} on a low
+     *                          priority thread, otherwise they are only written by
+     *                          {@link #write()} and {@link #stop()}
+     * @return The recorder
+     * @throws IOException If the stream could not be written
+     */
+    static synchronized FaultRecorder start(OutputStream stream, boolean writeInBackground) throws IOException {
+        stop();
+        FaultRecorder recorder = new FaultRecorder(stream);
+        if (writeInBackground) {
+            recorder.notifier = new Notifier(() -> {
+                Thread thread = Thread.currentThread();
+                if (thread.getPriority() != Thread.MIN_PRIORITY) {
+                    thread.setPriority(Thread.MIN_PRIORITY);
+                }
+                recorder.write();
+            });
+            recorder.notifier.setName("FaultRecorder");
+            recorder.notifier.startPeriodic(WRITE_PERIOD);
+        }
+        active.set(recorder);
+        return recorder;
+    }
+
+    /**
+     * Stops recording, writes the records still buffered and closes the file, does nothing if
+     * nothing is being recorded.
+     */
+    public static synchronized void stop() {
+        FaultRecorder recorder = active.getAndSet(null);
+        if (recorder != null) {
+            recorder.close();
+        }
+    }
+
+    /**
+     * @return Whether checks are being recorded
+     */
+    public static boolean isRecording() {
+        return active.get() != null;
+    }
+
+    /**
+     * @return The recorder in use, or null when not recording
+     */
+    static FaultRecorder active() {
+        return active.get();
+    }
+
+    /**
+     * Records the start of a scheduler cycle.
+     *
+     * @param timestamp The time of the cycle
+     */
+    synchronized void writeCycle(double timestamp) {
+        Record record = claim();
+        if (record != null) {
+            record.type = CYCLE;
+            record.timestamp = timestamp;
+            record.device = null;
+            tail++;
+        }
+    }
+
+    /**
+     * Records a check of a device.
+     *
+     * @param device    The device that was checked
+     * @param timestamp The time of the check
+     * @param check     What the device reported, copied so the caller can reuse it
+     */
+    synchronized void writeCheck(MonitoredDevice device, double timestamp, Check check) {
+        Record record = claim();
+        if (record != null) {
+            record.type = CHECK;
+            record.timestamp = timestamp;
+            record.device = device;
+            record.check.copy(check);
+            tail++;
+        }
+    }
+
+    // The next free slot, or null if the writer is a whole buffer behind
+    private Record claim() {
+        if (tail - head > mask) {
+            dropped++;
+            return null;
+        }
+        return records[(int) tail & mask];
+    }
+
+    /**
+     * Encodes the buffered records and writes them to the file. Called by the writer thread, the
+     * checking threads never wait for it.
+     */
+    void write() {
+        synchronized (writeLock) {
+            if (closed) {
+                return;
+            }
+            long from;
+            long to;
+            int droppedNow;
+            synchronized (this) {
+                from = head;
+                to = tail;
+                droppedNow = dropped;
+            }
+            try {
+                // The checking threads don't reuse slots before head, so these can be read unlocked
+                for (long i = from; i < to; i++) {
+                    Record record = records[(int) i & mask];
+                    if (record.type == CYCLE) {
+                        encodeCycle(record.timestamp);
+                    } else {
+                        encodeCheck(record.device, record.timestamp, record.check);
+                    }
+                    record.device = null;
+                }
+                out.flush();
+            } catch (IOException e) {
+                fail(e);
+                return;
+            }
+            synchronized (this) {
+                head = to;
+            }
+
+            if (droppedNow != reportedDropped) {
+                DriverStation.reportWarning(String.format("Fault recording dropped %d records, storage is falling behind",
+                        droppedNow - reportedDropped), false);
+                reportedDropped = droppedNow;
+            }
+        }
+    }
+
+    private void encodeCycle(double timestamp) throws IOException {
+        out.writeByte(CYCLE);
+        writeTime(timestamp);
+    }
+
+    private void encodeCheck(MonitoredDevice device, double timestamp, Check check) throws IOException {
+        int deviceId = idOf(device);
+        for (int i = 0; i < check.size; i++) {
+            if (check.tables[i] != null) {
+                idOf(check.tables[i]);
+            } else {
+                idOf(check.faults[i]);
+            }
+        }
+
+        out.writeByte(CHECK);
+        writeVarLong(deviceId);
+        writeTime(timestamp);
+        writeVarLong(check.size);
+        for (int i = 0; i < check.size; i++) {
+            if (check.tables[i] != null) {
+                out.writeByte(ITEM_WORD);
+                writeVarLong(tables.get(check.tables[i]));
+                writeVarLong(check.words[i]);
+            } else {
+                out.writeByte(ITEM_FAULT);
+                writeVarLong(faults.get(check.faults[i]));
+            }
+        }
+    }
+
+    private int idOf(MonitoredDevice device) throws IOException {
+        Integer id = devices.get(device);
+        if (id == null) {
+            id = devices.size();
+            devices.put(device, id);
+            out.writeByte(DEVICE);
+            writeVarLong(id);
+            out.writeUTF(device.owner.getName());
+            out.writeUTF(device.device.getLabel());
+            out.writeDouble(device.basePeriod);
+        }
+        return id;
+    }
+
+    private void idOf(FaultDescriptor[] table) throws IOException {
+        if (!tables.containsKey(table)) {
+            int id = tables.size();
+            tables.put(table, id);
+            out.writeByte(TABLE);
+            writeVarLong(id);
+            writeVarLong(table.length);
+            for (FaultDescriptor descriptor : table) {
+                out.writeBoolean(descriptor != null);
+                if (descriptor != null) {
+                    writeDescriptor(descriptor);
+                }
+            }
+        }
+    }
+
+    private void idOf(FaultDescriptor fault) throws IOException {
+        if (!faults.containsKey(fault)) {
+            int id = faults.size();
+            faults.put(fault, id);
+            out.writeByte(FAULT);
+            writeVarLong(id);
+            writeDescriptor(fault);
+        }
+    }
+
+    private void writeDescriptor(FaultDescriptor descriptor) throws IOException {
+        FaultKind kind = descriptor.kind;
+        out.writeBoolean(descriptor.device != null);
+        if (descriptor.device != null) {
+            out.writeUTF(descriptor.device);
+        }
+        out.writeUTF(kind.description);
+        out.writeBoolean(kind.isWarning);
+        out.writeBoolean(kind.sticky);
+        writeVarLong(kind.raiseCount);
+        writeVarLong(kind.clearCount);
+        out.writeDouble(kind.minHoldTime);
+    }
+
+    // Microseconds since the previous record, two or three bytes at the loop rate
+    private void writeTime(double timestamp) throws IOException {
+        long micros = Math.round(timestamp * 1e6);
+        writeVarLong(zigZag(micros - lastMicros));
+        lastMicros = micros;
+    }
+
+    private void writeVarLong(long value) throws IOException {
+        while ((value & ~0x7FL) != 0) {
+            out.writeByte((int) (value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.writeByte((int) value);
+    }
+
+    private static long zigZag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    // Called by the writer with writeLock held, so it must not wait for stop()
+    private void fail(IOException e) {
+        DriverStation.reportError("Fault recording stopped: " + e.getMessage(), false);
+        active.compareAndSet(this, null);
+        closeStream();
+    }
+
+    // Checks on other threads may still hold this recorder, what they record after this is never written
+    private void close() {
+        if (notifier != null) {
+            notifier.stop();
+            notifier.close();
+        }
+        write();
+        synchronized (writeLock) {
+            closeStream();
+        }
+    }
+
+    private void closeStream() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try {
+            out.close();
+        } catch (IOException e) {
+            DriverStation.reportError("Could not close fault recording: " + e.getMessage(), false);
+        }
+    }
+
+    // One buffered record, reused once the writer has written it
+    private static final class Record {
+        final Check check = new Check();
+        int type;
+        double timestamp;
+        MonitoredDevice device;
+    }
+
+    /**
+     * What a device reported during one check, in the order it was reported. Kept by the
+     * subsystem and reused for every check, it only grows when a device reports more than ever
+     * before.
+     */
+    static final class Check {
+        private FaultDescriptor[][] tables = new FaultDescriptor[4][];
+        private long[] words = new long[4];
+        private FaultDescriptor[] faults = new FaultDescriptor[4];
+        private int size;
+
+        /**
+         * Forgets everything recorded for the previous check.
+         */
+        void clear() {
+            size = 0;
+        }
+
+        /**
+         * @param fault A fault reported on its own
+         */
+        void add(FaultDescriptor fault) {
+            grow();
+            tables[size] = null;
+            faults[size++] = fault;
+        }
+
+        /**
+         * @param bits        A word of faults
+         * @param descriptors The descriptor of each bit
+         */
+        void add(long bits, FaultDescriptor[] descriptors) {
+            grow();
+            tables[size] = descriptors;
+            words[size++] = bits;
+        }
+
+        /**
+         * @param other The check to make this one a copy of
+         */
+        void copy(Check other) {
+            while (words.length < other.size) {
+                tables = Arrays.copyOf(tables, words.length * 2);
+                faults = Arrays.copyOf(faults, words.length * 2);
+                words = Arrays.copyOf(words, words.length * 2);
+            }
+            System.arraycopy(other.tables, 0, tables, 0, other.size);
+            System.arraycopy(other.words, 0, words, 0, other.size);
+            System.arraycopy(other.faults, 0, faults, 0, other.size);
+            size = other.size;
+        }
+
+        /**
+         * Reports everything recorded to a sink, in the order it was recorded.
+         *
+         * @param sink The sink to report to
+         */
+        void replay(FaultSink sink) {
+            for (int i = 0; i < size; i++) {
+                if (tables[i] != null) {
+                    sink.report(words[i], tables[i]);
+                } else {
+                    sink.report(faults[i]);
+                }
+            }
+        }
+
+        private void grow() {
+            if (size == words.length) {
+                tables = Arrays.copyOf(tables, size * 2);
+                words = Arrays.copyOf(words, size * 2);
+                faults = Arrays.copyOf(faults, size * 2);
+            }
+        }
+    }
+}
@@ -0,0 +1,332 @@
+package com.northeasternrobotics.advancedsubsystems;
+
+import com.northeasternrobotics.advancedsubsystems.AdvancedSubsystem.SystemStatus;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+
+/**
+ * The faults recorded by an AdvancedSubsystem, indexed by device and fault kind. Each fault is
+ * stored once with a count of how often it was reported, and the registry never grows past its
+ * capacity no matter how long the robot stays on.
+ *
+ * <p>Faults are linked in the order they were first detected, and non-sticky faults are also
+ * kept in an expiry queue ordered by when they were last reported, so recording, expiring and
+ * evicting a fault are all constant time. The number of recorded errors and warnings is kept up
+ * to date as faults come and go, so reading the status never has to look at individual faults.
+ */
+class FaultRegistry {
+    /**
+     * The default number of faults a subsystem can record.
+     */
+    static final int DEFAULT_CAPACITY = 64;
+    /**
+     * How long a non-sticky fault stays recorded after it was last reported, in seconds.
+     */
+    static final double FAULT_TIMEOUT = 10.0;
+
+    private final int capacity;
+    private final HashMap<FaultDescriptor, SubsystemFault> index;
+    // Every recorded fault, first detected first
+    private SubsystemFault first;
+    private SubsystemFault last;
+    private int size;
+    private List<SubsystemFault> list = List.of();
+    private int listVersion;
+    // Expiry queue of non-sticky faults, oldest first
+    private SubsystemFault oldest;
+    private SubsystemFault newest;
+    private int errors;
+    private int warnings;
+    private int version;
+    private long insertions;
+    private Listener listener;
+
+    /**
+     * Creates a new FaultRegistry.
+     *
+     * @param capacity The maximum number of faults to record
+     */
+    FaultRegistry(int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Fault capacity must be positive");
+        }
+        this.capacity = capacity;
+        this.index = new HashMap<>(capacity * 4 / 3 + 1);
+    }
+
+    /**
+     * @param listener Notified whenever a fault is recorded or removed, or null for none
+     */
+    void setListener(Listener listener) {
+        this.listener = listener;
+    }
+
+    /**
+     * Records a fault reported by a device, only allocating if it is not already recorded.
+     *
+     * @param descriptor The descriptor of the reported fault
+     * @param timestamp  The time the fault was reported
+     */
+    void record(FaultDescriptor descriptor, double timestamp) {
+        SubsystemFault existing = index.get(descriptor);
+        if (existing != null) {
+            seen(existing, timestamp);
+        } else {
+            insert(new SubsystemFault(descriptor, timestamp));
+        }
+    }
+
+    /**
+     * Records a fault, merging it into the existing entry for the same device and kind.
+     *
+     * @param fault The fault to record
+     * @return Whether the fault was not already recorded
+     */
+    boolean add(SubsystemFault fault) {
+        SubsystemFault existing = index.get(fault.descriptor);
+        if (existing != null) {
+            seen(existing, fault.timestamp);
+            return false;
+        }
+        insert(fault);
+        return true;
+    }
+
+    private void seen(SubsystemFault fault, double timestamp) {
+        fault.occurrences++;
+        if (timestamp > fault.lastSeen) {
+            fault.lastSeen = timestamp;
+            if (!fault.sticky) {
+                unlink(fault);
+                enqueue(fault);
+            }
+        }
+    }
+
+    private void insert(SubsystemFault fault) {
+        if (size >= capacity) {
+            removeExpired(fault.lastSeen);
+        }
+        if (size >= capacity) {
+            remove(oldest != null ? oldest : first);
+        }
+        fault.sequence = ++insertions;
+        index.put(fault.descriptor, fault);
+        fault.earlier = last;
+        if (last != null) {
+            last.later = fault;
+        } else {
+            first = fault;
+        }
+        last = fault;
+        size++;
+        if (!fault.sticky) {
+            enqueue(fault);
+        }
+        if (fault.isWarning) {
+            warnings++;
+        } else {
+            errors++;
+        }
+        version++;
+        if (listener != null) {
+            listener.added(fault);
+        }
+    }
+
+    /**
+     * Removes every non-sticky fault that has not been reported within {@link #FAULT_TIMEOUT}.
+     * Only the expired faults are visited.
+     *
+     * @param timestamp The current time
+     */
+    void removeExpired(double timestamp) {
+        double cutoff = timestamp - FAULT_TIMEOUT;
+        while (oldest != null && oldest.lastSeen <= cutoff) {
+            remove(oldest);
+        }
+    }
+
+    /**
+     * Removes a fault whether or not it is sticky, does nothing if it is not recorded.
+     *
+     * @param descriptor The descriptor of the fault
+     */
+    void remove(FaultDescriptor descriptor) {
+        SubsystemFault fault = index.get(descriptor);
+        if (fault != null) {
+            remove(fault);
+        }
+    }
+
+    private void remove(SubsystemFault fault) {
+        index.remove(fault.descriptor);
+        if (fault.earlier != null) {
+            fault.earlier.later = fault.later;
+        } else {
+            first = fault.later;
+        }
+        if (fault.later != null) {
+            fault.later.earlier = fault.earlier;
+        } else {
+            last = fault.earlier;
+        }
+        fault.earlier = null;
+        fault.later = null;
+        size--;
+        if (!fault.sticky) {
+            unlink(fault);
+        }
+        if (fault.isWarning) {
+            warnings--;
+        } else {
+            errors--;
+        }
+        version++;
+        if (listener != null) {
+            listener.removed(fault);
+        }
+    }
+
+    // Inserts from the newest end; reports arrive in time order so this is almost always O(1)
+    private void enqueue(SubsystemFault fault) {
+        SubsystemFault before = newest;
+        while (before != null && before.lastSeen > fault.lastSeen) {
+            before = before.older;
+        }
+        fault.older = before;
+        fault.newer = before != null ? before.newer : oldest;
+        if (fault.older != null) {
+            fault.older.newer = fault;
+        } else {
+            oldest = fault;
+        }
+        if (fault.newer != null) {
+            fault.newer.older = fault;
+        } else {
+            newest = fault;
+        }
+    }
+
+    private void unlink(SubsystemFault fault) {
+        if (fault.older != null) {
+            fault.older.newer = fault.newer;
+        } else {
+            oldest = fault.newer;
+        }
+        if (fault.newer != null) {
+            fault.newer.older = fault.older;
+        } else {
+            newest = fault.older;
+        }
+        fault.older = null;
+        fault.newer = null;
+    }
+
+    /**
+     * @param descriptor The descriptor of a fault
+     * @return The recorded fault, or null if it is not recorded
+     */
+    SubsystemFault get(FaultDescriptor descriptor) {
+        return index.get(descriptor);
+    }
+
+    /**
+     * Only builds a new list when faults were recorded or removed since the last call.
+     *
+     * @return An immutable list of the recorded faults in the order they were first detected
+     */
+    List<SubsystemFault> getFaults() {
+        if (listVersion != version) {
+            listVersion = version;
+            ArrayList<SubsystemFault> faults = new ArrayList<>(size);
+            for (SubsystemFault fault = first; fault != null; fault = fault.later) {
+                faults.add(fault);
+            }
+            list = List.copyOf(faults);
+        }
+        return list;
+    }
+
+    /**
+     * @return The number of recorded faults
+     */
+    int size() {
+        return size;
+    }
+
+    /**
+     * @return The worst status of the recorded faults
+     */
+    SystemStatus getStatus() {
+        if (errors > 0) {
+            return SystemStatus.ERROR;
+        }
+        return warnings > 0 ? SystemStatus.WARNING : SystemStatus.OK;
+    }
+
+    /**
+     * @return The number of recorded errors
+     */
+    int getErrorCount() {
+        return errors;
+    }
+
+    /**
+     * @return The number of recorded warnings
+     */
+    int getWarningCount() {
+        return warnings;
+    }
+
+    /**
+     * @return A counter that changes whenever a fault is recorded or removed
+     */
+    int getVersion() {
+        return version;
+    }
+
+    /**
+     * Removes every recorded fault.
+     */
+    void clear() {
+        SubsystemFault fault = first;
+        while (fault != null) {
+            SubsystemFault next = fault.later;
+            fault.older = null;
+            fault.newer = null;
+            fault.earlier = null;
+            fault.later = null;
+            if (listener != null) {
+                listener.removed(fault);
+            }
+            fault = next;
+        }
+        index.clear();
+        first = null;
+        last = null;
+        size = 0;
+        oldest = null;
+        newest = null;
+        errors = 0;
+        warnings = 0;
+        version++;
+    }
+
+    /**
+     * Notified when faults are recorded and removed, on the thread that changes the registry.
+     */
+    interface Listener {
+        /**
+         * @param fault A fault that was recorded
+         */
+        void added(SubsystemFault fault);
+
+        /**
+         * @param fault A fault that expired, was evicted or was cleared
+         */
+        void removed(SubsystemFault fault);
+    }
+}
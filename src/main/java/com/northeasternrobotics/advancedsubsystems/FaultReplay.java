@@ -0,0 +1,269 @@
+package com.northeasternrobotics.advancedsubsystems;
+
+import com.northeasternrobotics.advancedsubsystems.selfcheck.FaultSink;
+import com.northeasternrobotics.advancedsubsystems.selfcheck.SelfChecking;
+import edu.wpi.first.wpilibj.DriverStation;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Feeds a recording made by {@link FaultRecorder} back through the fault handling of the robot's
+ * AdvancedSubsystems, as fast as it can be read. Every recorded check is run through the same
+ * debouncing, recording, expiry and listeners as on the robot, at the time it was recorded, so
+ * the faults a subsystem ends up with match the match they came from. Status is published every
+ * {@link HealthScheduler#PUBLISH_PERIOD} of recorded time and once more at the end, so dashboards
+ * follow the replay. Replayed checks are never written to a recording that is running, so a
+ * recording only ever holds what the robot's own devices reported.
+ *
+ * <p>Recorded devices are matched to subsystems by name, so construct the same subsystems
+ * first, with a periodic callback that never runs so only the replay checks them. Devices of
+ * subsystems that don't exist are skipped with a warning.
+ */
+public final class FaultReplay {
+    private final Map<String, AdvancedSubsystem> subsystems = new LinkedHashMap<>();
+    private final List<ReplayedDevice> devices = new ArrayList<>();
+    private final List<FaultDescriptor[]> tables = new ArrayList<>();
+    private final List<FaultDescriptor> faults = new ArrayList<>();
+    private final DataInputStream in;
+    private long lastMicros;
+    private long checks;
+    private boolean inCycle;
+    private double cycleTime;
+    private double nextPublish = Double.NEGATIVE_INFINITY;
+
+    private FaultReplay(DataInputStream in, Collection<AdvancedSubsystem> subsystems) {
+        this.in = in;
+        for (AdvancedSubsystem subsystem : subsystems) {
+            this.subsystems.put(subsystem.getName(), subsystem);
+        }
+    }
+
+    /**
+     * Replays a recording through the subsystems constructed so far.
+     *
+     * @param file The recording
+     * @return The number of device checks replayed
+     * @throws IOException If the file could not be read or is not a recording
+     */
+    public static long replay(Path file) throws IOException {
+        try (InputStream stream = Files.newInputStream(file)) {
+            return replay(stream);
+        }
+    }
+
+    /**
+     * Replays a recording through the subsystems constructed so far.
+     *
+     * @param stream The recording, read to the end but not closed
+     * @return The number of device checks replayed
+     * @throws IOException If the stream could not be read or is not a recording
+     */
+    public static long replay(InputStream stream) throws IOException {
+        return replay(stream, RobotHealth.getSubsystems());
+    }
+
+    /**
+     * Replays a recording through the given subsystems.
+     *
+     * @param stream     The recording, read to the end but not closed
+     * @param subsystems The subsystems to replay the recorded devices through
+     * @return The number of device checks replayed
+     * @throws IOException If the stream could not be read or is not a recording
+     */
+    static long replay(InputStream stream, Collection<AdvancedSubsystem> subsystems) throws IOException {
+        DataInputStream in = new DataInputStream(new BufferedInputStream(stream));
+        if (in.readInt() != FaultRecorder.MAGIC) {
+            throw new IOException("Not a fault recording");
+        }
+        int version = in.readUnsignedByte();
+        if (version != FaultRecorder.VERSION) {
+            throw new IOException("Unsupported fault recording version " + version);
+        }
+        return new FaultReplay(in, subsystems).run();
+    }
+
+    private long run() throws IOException {
+        int tag;
+        while ((tag = in.read()) != -1) {
+            switch (tag) {
+                case FaultRecorder.CYCLE:
+                    beginCycle(readTime());
+                    break;
+                case FaultRecorder.DEVICE:
+                    readDevice();
+                    break;
+                case FaultRecorder.TABLE:
+                    readTable();
+                    break;
+                case FaultRecorder.FAULT:
+                    expectId(faults.size());
+                    faults.add(readDescriptor());
+                    break;
+                case FaultRecorder.CHECK:
+                    readCheck();
+                    break;
+                default:
+                    throw new IOException("Corrupt fault recording, unknown record " + tag);
+            }
+        }
+        endCycle();
+        publish();
+        return checks;
+    }
+
+    private void beginCycle(double timestamp) {
+        endCycle();
+        inCycle = true;
+        cycleTime = timestamp;
+        for (AdvancedSubsystem subsystem : subsystems.values()) {
+            subsystem.beginChecks(timestamp);
+        }
+    }
+
+    private void endCycle() {
+        if (!inCycle) {
+            return;
+        }
+        inCycle = false;
+        for (AdvancedSubsystem subsystem : subsystems.values()) {
+            subsystem.endChecks();
+            subsystem.dispatchFaultEvents();
+        }
+        if (cycleTime >= nextPublish) {
+            nextPublish = cycleTime + HealthScheduler.PUBLISH_PERIOD;
+            publish();
+        }
+    }
+
+    private void publish() {
+        FaultCodes.publish();
+        for (AdvancedSubsystem subsystem : subsystems.values()) {
+            subsystem.publishStatus();
+        }
+    }
+
+    private void readDevice() throws IOException {
+        expectId(devices.size());
+        String subsystemName = in.readUTF();
+        String label = in.readUTF();
+        double basePeriod = in.readDouble();
+        AdvancedSubsystem owner = subsystems.get(subsystemName);
+        ReplayedDevice device = new ReplayedDevice(label);
+        if (owner != null) {
+            device.monitored = new MonitoredDevice(owner, device, basePeriod);
+        } else {
+            DriverStation.reportWarning(String.format("Skipping replay of %s, there is no subsystem named %s",
+                    label, subsystemName), false);
+        }
+        devices.add(device);
+    }
+
+    private void readTable() throws IOException {
+        expectId(tables.size());
+        FaultDescriptor[] table = new FaultDescriptor[(int) readVarLong()];
+        for (int i = 0; i < table.length; i++) {
+            table[i] = in.readBoolean() ? readDescriptor() : null;
+        }
+        tables.add(table);
+    }
+
+    private FaultDescriptor readDescriptor() throws IOException {
+        String device = in.readBoolean() ? in.readUTF() : null;
+        String description = in.readUTF();
+        boolean isWarning = in.readBoolean();
+        boolean sticky = in.readBoolean();
+        int raiseCount = (int) readVarLong();
+        int clearCount = (int) readVarLong();
+        double minHoldTime = in.readDouble();
+        if (device == null) {
+            return new FaultDescriptor(description, isWarning, sticky);
+        }
+        return new FaultDescriptor(device, new FaultKind(description, isWarning, sticky, raiseCount, clearCount,
+                minHoldTime));
+    }
+
+    private void readCheck() throws IOException {
+        ReplayedDevice device = devices.get((int) readVarLong());
+        double timestamp = readTime();
+        FaultRecorder.Check check = device.check;
+        check.clear();
+        long size = readVarLong();
+        for (long i = 0; i < size; i++) {
+            int item = in.readUnsignedByte();
+            if (item == FaultRecorder.ITEM_WORD) {
+                FaultDescriptor[] table = tables.get((int) readVarLong());
+                check.add(readVarLong(), table);
+            } else if (item == FaultRecorder.ITEM_FAULT) {
+                check.add(faults.get((int) readVarLong()));
+            } else {
+                throw new IOException("Corrupt fault recording, unknown check item " + item);
+            }
+        }
+
+        if (device.monitored != null) {
+            device.monitored.owner.checkDevice(device.monitored, timestamp, null);
+            checks++;
+        }
+    }
+
+    private void expectId(int expected) throws IOException {
+        long id = readVarLong();
+        if (id != expected) {
+            throw new IOException(String.format("Corrupt fault recording, expected id %d but read %d",
+                    expected, id));
+        }
+    }
+
+    private double readTime() throws IOException {
+        long delta = readVarLong();
+        lastMicros += (delta >>> 1) ^ -(delta & 1);
+        return lastMicros / 1e6;
+    }
+
+    private long readVarLong() throws IOException {
+        long value = 0;
+        for (int shift = 0; shift < Long.SIZE; shift += 7) {
+            int b = in.read();
+            if (b == -1) {
+                throw new EOFException("Fault recording ends in the middle of a record");
+            }
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IOException("Corrupt fault recording, number too long");
+    }
+
+    // Reports exactly what the recorded device reported at the check being replayed
+    private static final class ReplayedDevice implements SelfChecking {
+        final String label;
+        final FaultRecorder.Check check = new FaultRecorder.Check();
+        MonitoredDevice monitored;
+
+        ReplayedDevice(String label) {
+            this.label = label;
+        }
+
+        @Override
+        public void checkForFaults(FaultSink sink) {
+            check.replay(sink);
+        }
+
+        @Override
+        public String getLabel() {
+            return label;
+        }
+    }
+}
@@ -0,0 +1,508 @@
+package com.northeasternrobotics.advancedsubsystems;
+
+import com.northeasternrobotics.advancedsubsystems.AdvancedSubsystem.CheckMode;
+import com.northeasternrobotics.advancedsubsystems.selfcheck.SelfChecking;
+import com.northeasternrobotics.advancedsubsystems.selfcheck.StatusSignalBatch;
+import edu.wpi.first.networktables.DoublePublisher;
+import edu.wpi.first.networktables.IntegerPublisher;
+import edu.wpi.first.networktables.NetworkTable;
+import edu.wpi.first.networktables.NetworkTableInstance;
+import edu.wpi.first.wpilibj.DriverStation;
+import edu.wpi.first.wpilibj.Notifier;
+import edu.wpi.first.wpilibj.Timer;
+
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.BiConsumer;
+import java.util.function.Supplier;
+
+/**
+ * Runs the hardware checks of every AdvancedSubsystem from a single periodic callback instead of
+ * one per subsystem. Device checks are spread round-robin across loop cycles, and a cycle stops
+ * checking once it has used its time budget, leaving the remaining checks for the next cycle.
+ *
+ * <p>Registered devices are brought up one at a time rather than all on the first loop after
+ * boot: the checker of each device is only built when its turn comes, and its first check waits
+ * out a grace period while the device enumerates and its signals start arriving.
+ */
+public final class HealthScheduler {
+    /**
+     * How often the scheduler runs, in seconds.
+     */
+    public static final double LOOP_PERIOD = 0.02;
+    /**
+     * How often each device is checked by default, in seconds.
+     */
+    public static final double CHECK_PERIOD = 0.25;
+    /**
+     * The longest a healthy device's check period can back off to, as a multiple of its base
+     * period.
+     */
+    public static final double MAX_BACKOFF = 4.0;
+    /**
+     * The check period of a device with active faults, as a multiple of its base period.
+     */
+    public static final double FAULTED_PERIOD_SCALE = 0.5;
+    /**
+     * The check period while disabled off the field, such as in the pit, as a multiple of the
+     * base period.
+     */
+    public static final double DISABLED_PERIOD_SCALE = 0.5;
+    /**
+     * The check period of healthy devices during a match, as a multiple of the base period.
+     */
+    public static final double MATCH_PERIOD_SCALE = 2.0;
+    /**
+     * How often subsystem status is published, in seconds.
+     */
+    public static final double PUBLISH_PERIOD = 1.0;
+    /**
+     * The default time the main loop scheduler may spend on checks each cycle, in seconds.
+     */
+    public static final double DEFAULT_CYCLE_BUDGET = 0.0005;
+    /**
+     * How much longer healthy devices wait between checks while their CAN bus is busier than the
+     * utilization threshold.
+     */
+    public static final double CONGESTED_PERIOD_SCALE = 4.0;
+    /**
+     * The longest any device waits between checks, in seconds, no matter how far its period
+     * backs off or is scaled. Well inside the time a recorded fault expires after, so the active
+     * faults of a slowly checked device are seen again before they expire.
+     */
+    public static final double MAX_CHECK_PERIOD = FaultRegistry.FAULT_TIMEOUT / 4;
+    /**
+     * How long the scheduler waits between bringing up registered devices, in seconds.
+     */
+    public static final double STARTUP_SPACING = 0.05;
+    /**
+     * How long a device has to enumerate after it is brought up before its first check, in
+     * seconds.
+     */
+    public static final double BOOT_GRACE_PERIOD = 1.0;
+    /**
+     * How long the scheduler waits before trying again to bring up a device whose checker could
+     * not be built, in seconds. Doubles with every failed attempt up to
+     * {@link #MAX_STARTUP_RETRY_PERIOD}.
+     */
+    public static final double STARTUP_RETRY_PERIOD = 1.0;
+    /**
+     * The longest the scheduler waits between attempts to bring up a device, in seconds.
+     */
+    public static final double MAX_STARTUP_RETRY_PERIOD = 30.0;
+
+    /**
+     * Reported for a device when most of its recent checks took longer than the cycle budget.
+     */
+    static final FaultKind SLOW_CHECK = new FaultKind("Fault check consistently slow", true);
+    /**
+     * Reported for a device when its checker could not be built, stays until a retry builds it or
+     * faults are cleared.
+     */
+    static final FaultKind START_FAILED = new FaultKind("Failed to start checking", false, true);
+    private static final double PERIOD_FILTER_GAIN = 0.05;
+    private static final double BACKOFF_GROWTH = 1.25;
+    // Out of the last 8 checks of a device
+    private static final int SLOW_CHECK_COUNT = 6;
+
+    private static final HealthScheduler mainLoop = new HealthScheduler("Checks", DEFAULT_CYCLE_BUDGET, false);
+    // Blocking reads only delay the background thread, so it gets a far larger budget
+    private static final HealthScheduler background = new HealthScheduler("BackgroundChecks", 0.01, true);
+
+    /**
+     * The Phoenix Pro signals of every device this scheduler checks, refreshed together in one
+     * call per bus.
+     */
+    final StatusSignalBatch statusSignals = new StatusSignalBatch();
+    /**
+     * The CAN buses of every device this scheduler checks.
+     */
+    final CanBusMonitor canBuses;
+    private final List<AdvancedSubsystem> subsystems = new CopyOnWriteArrayList<>();
+    private final List<MonitoredDevice> devices = new CopyOnWriteArrayList<>();
+    // Registered devices waiting for their turn to be brought up, in registration order
+    private final Queue<StartingDevice> startingDevices = new ConcurrentLinkedQueue<>();
+    // Devices whose checker could not be built, waiting to be tried again
+    private final List<StartingDevice> retryingDevices = new CopyOnWriteArrayList<>();
+    private final String name;
+    private final boolean runsInBackground;
+    private volatile double cycleBudget;
+    private volatile boolean adaptiveRates = true;
+    private volatile double achievedCheckPeriod = Double.NaN;
+    private volatile int deferredChecks;
+    private boolean started;
+    private int cursor;
+    private double nextStartup = Double.NEGATIVE_INFINITY;
+    private double nextPublish;
+    // The shortest period any device was last scheduled at, how often the signals are refreshed
+    private double shortestPeriod = CHECK_PERIOD * FAULTED_PERIOD_SCALE;
+    private Notifier notifier;
+    private DoublePublisher achievedPeriodPublisher;
+    private IntegerPublisher deferredChecksPublisher;
+    private IntegerPublisher devicesPublisher;
+
+    private HealthScheduler(String name, double cycleBudget, boolean runsInBackground) {
+        this.name = name;
+        this.cycleBudget = cycleBudget;
+        this.runsInBackground = runsInBackground;
+        this.canBuses = new CanBusMonitor("SystemStatus/Robot/" + name);
+    }
+
+    /**
+     * @return The scheduler for subsystems checked on the main robot loop
+     */
+    public static HealthScheduler getInstance() {
+        return mainLoop;
+    }
+
+    /**
+     * @return The scheduler for subsystems checked on the background thread
+     */
+    public static HealthScheduler getBackgroundInstance() {
+        return background;
+    }
+
+    /**
+     * @param checkMode Where the checks run
+     * @return The scheduler that runs checks in that mode
+     */
+    static HealthScheduler forMode(CheckMode checkMode) {
+        return checkMode == CheckMode.BACKGROUND ? background : mainLoop;
+    }
+
+    /**
+     * Adds a subsystem to the scheduler, starting the scheduler on first use. The scheduler is
+     * registered with the periodic callback of the first subsystem only, always at
+     * {@link #LOOP_PERIOD}. Callbacks are usually method references, which are new objects on
+     * every call, so the callbacks of later subsystems can't be told apart and are ignored.
+     *
+     * @param subsystem        The subsystem to check and publish
+     * @param periodicCallback The callback used to run the main loop scheduler, only used for the
+     *                         first subsystem
+     */
+    synchronized void addSubsystem(AdvancedSubsystem subsystem, BiConsumer<Runnable, Double> periodicCallback) {
+        subsystems.add(subsystem);
+        if (started) {
+            return;
+        }
+        started = true;
+
+        NetworkTable table = NetworkTableInstance.getDefault().getTable("SmartDashboard").getSubTable("SystemStatus/Robot/" + name);
+        achievedPeriodPublisher = table.getDoubleTopic("AchievedPeriod").publish();
+        deferredChecksPublisher = table.getIntegerTopic("DeferredChecks").publish();
+        devicesPublisher = table.getIntegerTopic("Devices").publish();
+
+        if (runsInBackground) {
+            notifier = new Notifier(() -> {
+                Thread thread = Thread.currentThread();
+                if (thread.getPriority() != Thread.MIN_PRIORITY) {
+                    thread.setPriority(Thread.MIN_PRIORITY);
+                }
+                run();
+            });
+            notifier.setName("AdvancedSubsystemChecks");
+            notifier.startPeriodic(LOOP_PERIOD);
+            // Fault events are still delivered on the main robot loop
+            periodicCallback.accept(this::dispatchFaultEvents, LOOP_PERIOD);
+        } else {
+            periodicCallback.accept(this::run, LOOP_PERIOD);
+        }
+    }
+
+    /**
+     * Adds a device to be checked. The device is brought up after the devices registered before
+     * it, {@link #STARTUP_SPACING} apart, and first checked {@link #BOOT_GRACE_PERIOD} later.
+     *
+     * @param owner       The subsystem the device is registered to
+     * @param label       The name of the device
+     * @param factory     Builds the checker of the device when it is brought up
+     * @param checkPeriod How often the device is checked before adapting, in seconds
+     */
+    synchronized void addDevice(AdvancedSubsystem owner, String label, Supplier<? extends SelfChecking> factory,
+                                double checkPeriod) {
+        if (!(checkPeriod > 0)) {
+            throw new IllegalArgumentException("Check period must be positive");
+        }
+        nextStartup = Math.max(Timer.getFPGATimestamp(), nextStartup + STARTUP_SPACING);
+        startingDevices.add(new StartingDevice(owner, label, factory, checkPeriod, nextStartup));
+    }
+
+    /**
+     * @param threshold The CAN bus utilization, from 0 to 1, above which checks of healthy
+     *                  devices on that bus are throttled, 0.8 by default. Faulted devices are
+     *                  never throttled.
+     */
+    public static void setBusUtilizationThreshold(double threshold) {
+        mainLoop.canBuses.setUtilizationThreshold(threshold);
+        background.canBuses.setUtilizationThreshold(threshold);
+    }
+
+    /**
+     * @return The CAN bus utilization above which checks of healthy devices are throttled
+     */
+    public static double getBusUtilizationThreshold() {
+        return mainLoop.canBuses.getUtilizationThreshold();
+    }
+
+    /**
+     * @param adaptiveRates Whether check periods adapt to device health and robot mode, when
+     *                      false every device is checked at its base period
+     */
+    public void setAdaptiveRates(boolean adaptiveRates) {
+        this.adaptiveRates = adaptiveRates;
+    }
+
+    /**
+     * @return Whether check periods adapt to device health and robot mode
+     */
+    public boolean isAdaptiveRates() {
+        return adaptiveRates;
+    }
+
+    /**
+     * @param cycleBudget The time checks may take each loop cycle, in seconds. At least one due
+     *                    check always runs per cycle.
+     */
+    public void setCycleBudget(double cycleBudget) {
+        this.cycleBudget = cycleBudget;
+    }
+
+    /**
+     * @return The time checks may take each loop cycle, in seconds
+     */
+    public double getCycleBudget() {
+        return cycleBudget;
+    }
+
+    /**
+     * @return The average time between checks of the same device, in seconds, or NaN before any
+     * device has been checked twice
+     */
+    public double getAchievedCheckPeriod() {
+        return achievedCheckPeriod;
+    }
+
+    /**
+     * @return The number of registered devices that have not been brought up yet, including
+     * devices waiting to be tried again after their checker could not be built
+     */
+    public int getStartingDevices() {
+        return startingDevices.size() + retryingDevices.size();
+    }
+
+    /**
+     * @return The number of due checks that did not fit in the last cycle's budget
+     */
+    public int getDeferredChecks() {
+        return deferredChecks;
+    }
+
+    /**
+     * Runs one cycle of checks. Called every loop period by the robot loop or background thread.
+     */
+    void run() {
+        double now = Timer.getFPGATimestamp();
+        FaultRecorder recorder = FaultRecorder.active();
+        if (recorder != null) {
+            recorder.writeCycle(now);
+        }
+        for (int i = 0; i < subsystems.size(); i++) {
+            subsystems.get(i).beginChecks(now);
+        }
+        startDevice(now);
+        // No device reads the signals more often than the shortest period any of them is scheduled at
+        statusSignals.refresh(now, shortestPeriod);
+        canBuses.update(now);
+
+        double modeScale = modePeriodScale();
+        long start = System.nanoTime();
+        long budget = (long) (cycleBudget * 1e9);
+        int size = devices.size();
+        int checked = 0;
+        int deferred = 0;
+        int nextCursor = size > 0 ? (cursor + 1) % size : 0;
+        double shortest = Double.POSITIVE_INFINITY;
+        for (int n = 0; n < size; n++) {
+            int i = (cursor + n) % size;
+            MonitoredDevice device = devices.get(i);
+            shortest = Math.min(shortest, device.period);
+            if (device.nextDue > now) {
+                continue;
+            }
+            if (checked > 0 && System.nanoTime() - start >= budget) {
+                if (deferred++ == 0) {
+                    nextCursor = i;
+                }
+                continue;
+            }
+            check(device, now, modeScale, budget);
+            checked++;
+        }
+        cursor = nextCursor;
+        deferredChecks = deferred;
+        if (size > 0) {
+            shortestPeriod = shortest;
+        }
+
+        for (int i = 0; i < subsystems.size(); i++) {
+            subsystems.get(i).endChecks();
+        }
+        if (!runsInBackground) {
+            dispatchFaultEvents();
+        }
+
+        if (now >= nextPublish) {
+            nextPublish = now + PUBLISH_PERIOD;
+            FaultCodes.publish();
+            for (int i = 0; i < subsystems.size(); i++) {
+                AdvancedSubsystem subsystem = subsystems.get(i);
+                long publishStart = System.nanoTime();
+                subsystem.publishStatus();
+                subsystem.publishLatency.record(System.nanoTime() - publishStart, budget);
+            }
+            achievedPeriodPublisher.set(achievedCheckPeriod);
+            deferredChecksPublisher.set(deferred);
+            devicesPublisher.set(size);
+        }
+    }
+
+    // At most one device per cycle, so its first reads don't pile onto those of other devices
+    private void startDevice(double now) {
+        StartingDevice starting = startingDevices.peek();
+        if (starting != null && starting.startAt <= now) {
+            startingDevices.poll();
+        } else {
+            starting = null;
+            for (int i = 0; i < retryingDevices.size(); i++) {
+                if (retryingDevices.get(i).startAt <= now) {
+                    starting = retryingDevices.remove(i);
+                    break;
+                }
+            }
+            if (starting == null) {
+                return;
+            }
+        }
+
+        SelfChecking device;
+        try {
+            device = starting.factory.get();
+        } catch (RuntimeException e) {
+            double retryPeriod = Math.min(MAX_STARTUP_RETRY_PERIOD, STARTUP_RETRY_PERIOD * Math.pow(2, starting.attempts));
+            starting.attempts++;
+            starting.startAt = now + retryPeriod;
+            retryingDevices.add(starting);
+            starting.owner.reportDeviceFault(starting.startFailedFault, now);
+            DriverStation.reportError(String.format("Could not start checking %s, trying again in %.0fs: %s",
+                    starting.label, retryPeriod, e), e.getStackTrace());
+            return;
+        }
+        MonitoredDevice monitored = new MonitoredDevice(starting.owner, device, starting.checkPeriod);
+        monitored.nextDue = now + BOOT_GRACE_PERIOD;
+        devices.add(monitored);
+        starting.owner.monitoredDevices.add(monitored);
+        if (starting.attempts > 0) {
+            starting.owner.clearDeviceFault(starting.startFailedFault);
+        }
+    }
+
+    private void dispatchFaultEvents() {
+        for (int i = 0; i < subsystems.size(); i++) {
+            subsystems.get(i).dispatchFaultEvents();
+        }
+    }
+
+    private double modePeriodScale() {
+        if (!adaptiveRates) {
+            return 1.0;
+        }
+        if (DriverStation.isFMSAttached()) {
+            return MATCH_PERIOD_SCALE;
+        }
+        return DriverStation.isDisabled() ? DISABLED_PERIOD_SCALE : 1.0;
+    }
+
+    private void check(MonitoredDevice device, double now, double modeScale, long budget) {
+        boolean faulted = true;
+        long start = System.nanoTime();
+        try {
+            faulted = device.owner.checkDevice(device, now);
+        } catch (RuntimeException e) {
+            DriverStation.reportError("Fault check failed: " + e, e.getStackTrace());
+        }
+        long elapsed = System.nanoTime() - start;
+        device.checkLatency.record(elapsed, budget);
+        device.owner.checkLatency.record(elapsed, budget);
+        device.slowChecks = (device.slowChecks << 1 | (elapsed > budget ? 1 : 0)) & 0xFF;
+        if (Integer.bitCount(device.slowChecks) >= SLOW_CHECK_COUNT) {
+            device.owner.reportDeviceFault(device.slowCheckFault, now);
+        }
+        // Not counted as the device being faulted, checking more often would only add to a sick bus
+        if (device.bus != null) {
+            if (device.bus.hadBusOff(now)) {
+                device.owner.reportDeviceFault(device.bus.busOffFault, now);
+            }
+            if (device.bus.hadTxFull(now)) {
+                device.owner.reportDeviceFault(device.bus.txFullFault, now);
+            }
+        }
+
+        if (!Double.isNaN(device.lastChecked)) {
+            double interval = now - device.lastChecked;
+            achievedCheckPeriod = Double.isNaN(achievedCheckPeriod)
+                    ? interval
+                    : achievedCheckPeriod + PERIOD_FILTER_GAIN * (interval - achievedCheckPeriod);
+        }
+        device.lastChecked = now;
+        double period = nextPeriod(device, faulted, modeScale);
+        device.period = period;
+        device.nextDue += period;
+        if (device.nextDue <= now) {
+            device.nextDue = now + period;
+        }
+    }
+
+    private double nextPeriod(MonitoredDevice device, boolean faulted, double modeScale) {
+        double period = adaptivePeriod(device, faulted, modeScale);
+        if (!faulted && device.bus != null && device.bus.isCongested()) {
+            period *= CONGESTED_PERIOD_SCALE;
+        }
+        return Math.min(period, MAX_CHECK_PERIOD);
+    }
+
+    // Backs off while a device stays healthy and snaps back as soon as it reports a fault
+    private double adaptivePeriod(MonitoredDevice device, boolean faulted, double modeScale) {
+        if (!adaptiveRates) {
+            return device.basePeriod;
+        }
+        if (faulted) {
+            device.backoff = 1.0;
+            return Math.max(LOOP_PERIOD, device.basePeriod * FAULTED_PERIOD_SCALE);
+        }
+        device.backoff = Math.min(MAX_BACKOFF, device.backoff * BACKOFF_GROWTH);
+        return Math.max(LOOP_PERIOD, device.basePeriod * device.backoff * modeScale);
+    }
+
+    // A registered device waiting to be brought up
+    private static final class StartingDevice {
+        final AdvancedSubsystem owner;
+        final String label;
+        final Supplier<? extends SelfChecking> factory;
+        final double checkPeriod;
+        final FaultDescriptor startFailedFault;
+        double startAt;
+        int attempts;
+
+        StartingDevice(AdvancedSubsystem owner, String label, Supplier<? extends SelfChecking> factory,
+                       double checkPeriod, double startAt) {
+            this.owner = owner;
+            this.label = label;
+            this.factory = factory;
+            this.checkPeriod = checkPeriod;
+            this.startFailedFault = new FaultDescriptor(label, START_FAILED);
+            this.startAt = startAt;
+        }
+    }
+}
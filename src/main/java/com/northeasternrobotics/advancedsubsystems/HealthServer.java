@@ -0,0 +1,191 @@
+package com.northeasternrobotics.advancedsubsystems;
+
+import com.northeasternrobotics.advancedsubsystems.AdvancedSubsystem.SystemStatus;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import edu.wpi.first.wpilibj.DriverStation;
+import org.json.JSONArray;
+import org.json.JSONObject;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.zip.CRC32;
+
+/**
+ * Serves the health of the whole robot as one JSON document over HTTP, for pit displays that
+ * would otherwise subscribe to every SystemStatus key. The document is only rebuilt when a
+ * subsystem's faults change, and clients that send back its ETag get an empty 304 response while
+ * nothing changed, so any number of displays can poll it cheaply.
+ *
+ * <p>The server is not started by default, call {@link #start()} from robotInit. It runs on its
+ * own thread and only reads the fault snapshots the subsystems already publish, so it never
+ * blocks the robot loop or the checks.
+ */
+public final class HealthServer {
+    /**
+     * The default port, in the range FRC allows for team use.
+     */
+    public static final int DEFAULT_PORT = 5809;
+    /**
+     * The path the document is served at.
+     */
+    public static final String PATH = "/health";
+
+    private static HttpServer server;
+    private static volatile Document document;
+
+    private HealthServer() {
+    }
+
+    /**
+     * Starts serving the robot's health on {@link #DEFAULT_PORT}.
+     */
+    public static void start() {
+        start(DEFAULT_PORT);
+    }
+
+    /**
+     * Starts serving the robot's health, does nothing if the server is already running.
+     *
+     * @param port The port to listen on
+     */
+    public static synchronized void start(int port) {
+        if (server != null) {
+            return;
+        }
+        try {
+            server = HttpServer.create(new InetSocketAddress(port), 0);
+        } catch (IOException e) {
+            DriverStation.reportError(String.format("Health server could not listen on port %d: %s", port,
+                    e.getMessage()), false);
+            return;
+        }
+        server.createContext(PATH, HealthServer::handle);
+        server.setExecutor(Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "HealthServer");
+            thread.setDaemon(true);
+            return thread;
+        }));
+        server.start();
+    }
+
+    /**
+     * Stops the server if it is running.
+     */
+    public static synchronized void stop() {
+        if (server != null) {
+            server.stop(0);
+            server = null;
+        }
+    }
+
+    private static void handle(HttpExchange exchange) throws IOException {
+        try {
+            if (!exchange.getRequestMethod().equals("GET") && !exchange.getRequestMethod().equals("HEAD")) {
+                exchange.getResponseHeaders().set("Allow", "GET, HEAD");
+                exchange.sendResponseHeaders(405, -1);
+                return;
+            }
+
+            Document current = getDocument();
+            exchange.getResponseHeaders().set("ETag", current.etag);
+            exchange.getResponseHeaders().set("Cache-Control", "no-cache");
+            // Pit displays are usually web pages served from somewhere else
+            exchange.getResponseHeaders().set("Access-Control-Allow-Origin", "*");
+            if (current.matches(exchange.getRequestHeaders().getFirst("If-None-Match"))) {
+                exchange.sendResponseHeaders(304, -1);
+                return;
+            }
+
+            exchange.getResponseHeaders().set("Content-Type", "application/json");
+            if (exchange.getRequestMethod().equals("HEAD")) {
+                exchange.sendResponseHeaders(200, -1);
+                return;
+            }
+            exchange.sendResponseHeaders(200, current.body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(current.body);
+            }
+        } finally {
+            exchange.close();
+        }
+    }
+
+    // Only rebuilds when the robot's health changed since the cached document
+    private static Document getDocument() {
+        int version = RobotHealth.getVersion();
+        Document cached = document;
+        if (cached == null || cached.version != version) {
+            cached = new Document(version, build());
+            document = cached;
+        }
+        return cached;
+    }
+
+    private static JSONObject build() {
+        JSONArray subsystems = new JSONArray();
+        for (AdvancedSubsystem subsystem : RobotHealth.getSubsystems()) {
+            List<SubsystemFault> faults = subsystem.getFaults();
+            JSONArray faultArray = new JSONArray();
+            for (int i = 0; i < faults.size(); i++) {
+                SubsystemFault fault = faults.get(i);
+                faultArray.put(new JSONObject()
+                        .put("description", fault.description)
+                        .put("isWarning", fault.isWarning)
+                        .put("sticky", fault.sticky)
+                        .put("code", fault.code)
+                        .put("device", fault.deviceId)
+                        .put("timestamp", fault.timestamp));
+            }
+            subsystems.put(new JSONObject()
+                    .put("name", subsystem.getName())
+                    .put("status", subsystem.getSystemStatus().name())
+                    .put("faults", faultArray));
+        }
+
+        JSONArray recentFaults = new JSONArray();
+        for (String fault : RobotHealth.getRecentFaults()) {
+            recentFaults.put(fault);
+        }
+
+        SystemStatus status = RobotHealth.getStatus();
+        return new JSONObject()
+                .put("status", status.name())
+                .put("errors", RobotHealth.getErrorCount())
+                .put("warnings", RobotHealth.getWarningCount())
+                .put("subsystems", subsystems)
+                .put("recentFaults", recentFaults);
+    }
+
+    private static final class Document {
+        final int version;
+        final byte[] body;
+        final String etag;
+
+        Document(int version, JSONObject json) {
+            this.version = version;
+            this.body = json.toString().getBytes(StandardCharsets.UTF_8);
+            // Derived from the content so it stays valid across robot restarts
+            CRC32 crc = new CRC32();
+            crc.update(body);
+            this.etag = String.format("\"%08x-%x\"", crc.getValue(), body.length);
+        }
+
+        boolean matches(String ifNoneMatch) {
+            if (ifNoneMatch == null) {
+                return false;
+            }
+            for (String tag : ifNoneMatch.split(",")) {
+                String trimmed = tag.trim();
+                if (trimmed.equals("*") || trimmed.equals(etag) || trimmed.equals("W/" + etag)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+}
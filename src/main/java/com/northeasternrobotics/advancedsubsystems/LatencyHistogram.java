@@ -0,0 +1,115 @@
+package com.northeasternrobotics.advancedsubsystems;
+
+/**
+ * A fixed-size histogram of how long an operation took. Buckets split every doubling of the
+ * duration into four, so percentiles are accurate to within 25% from 1ns up to several seconds,
+ * and recording never allocates.
+ *
+ * <p>Only one thread may record and reset the window max, other threads may read with slightly
+ * stale results.
+ */
+final class LatencyHistogram {
+    private static final int SUB_BUCKET_BITS = 2;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    // Up to 2^32ns (about 4.3s), anything longer goes in the last bucket
+    private static final int BUCKETS = 32 * SUB_BUCKETS;
+
+    private final long[] counts = new long[BUCKETS];
+    private volatile long count;
+    private volatile long max;
+    private volatile long windowMax;
+    private volatile long overBudget;
+
+    /**
+     * Records a duration.
+     *
+     * @param nanos  How long the operation took, in nanoseconds
+     * @param budget How long the operation should have taken at most, in nanoseconds
+     */
+    void record(long nanos, long budget) {
+        counts[bucket(nanos)]++;
+        count++;
+        if (nanos > max) {
+            max = nanos;
+        }
+        if (nanos > windowMax) {
+            windowMax = nanos;
+        }
+        if (nanos > budget) {
+            overBudget++;
+        }
+    }
+
+    private static int bucket(long nanos) {
+        long value = Math.max(nanos, 1);
+        int msb = 63 - Long.numberOfLeadingZeros(value);
+        int sub = (int) (msb >= SUB_BUCKET_BITS
+                ? value >>> (msb - SUB_BUCKET_BITS)
+                : value << (SUB_BUCKET_BITS - msb)) & (SUB_BUCKETS - 1);
+        return Math.min(msb * SUB_BUCKETS + sub, BUCKETS - 1);
+    }
+
+    private static double lowerBound(int bucket) {
+        int msb = bucket / SUB_BUCKETS;
+        int sub = bucket % SUB_BUCKETS;
+        return (double) (SUB_BUCKETS + sub) * (1L << msb) / SUB_BUCKETS;
+    }
+
+    /**
+     * @param quantile The quantile, between 0 and 1
+     * @return The duration the given fraction of recorded durations did not exceed, in
+     * nanoseconds, or 0 if nothing was recorded
+     */
+    double percentile(double quantile) {
+        long total = count;
+        if (total == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(quantile * total));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS - 1; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                return Math.min(lowerBound(i + 1), max);
+            }
+        }
+        return max;
+    }
+
+    /**
+     * @return The number of recorded durations
+     */
+    long getCount() {
+        return count;
+    }
+
+    /**
+     * @return The longest recorded duration, in nanoseconds
+     */
+    long getMax() {
+        return max;
+    }
+
+    /**
+     * @return The longest duration recorded since {@link #resetWindowMax()} was last called, in
+     * nanoseconds
+     */
+    long getWindowMax() {
+        return windowMax;
+    }
+
+    /**
+     * Starts a new window for {@link #getWindowMax()}, so a single outlier only shows up in the
+     * window it happened in.
+     */
+    void resetWindowMax() {
+        windowMax = 0;
+    }
+
+    /**
+     * @return The number of recorded durations that went over their budget
+     */
+    long getOverBudget() {
+        return overBudget;
+    }
+}
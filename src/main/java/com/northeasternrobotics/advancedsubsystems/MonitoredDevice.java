@@ -0,0 +1,76 @@
+package com.northeasternrobotics.advancedsubsystems;
+
+import com.northeasternrobotics.advancedsubsystems.selfcheck.SelfChecking;
+
+/**
+ * A registered device and the scheduling state the {@link HealthScheduler} keeps for it.
+ */
+final class MonitoredDevice {
+    /**
+     * The subsystem the device is registered to.
+     */
+    final AdvancedSubsystem owner;
+    /**
+     * The device.
+     */
+    final SelfChecking device;
+    /**
+     * How often the device is checked before adapting to its health and the robot mode, in
+     * seconds.
+     */
+    final double basePeriod;
+    /**
+     * The warning reported when checking the device is consistently slow.
+     */
+    final FaultDescriptor slowCheckFault;
+    /**
+     * The faults the device reported at its last check.
+     */
+    final DeviceFaultState faultState;
+    /**
+     * The CAN bus the device is on, or null if it is not on a CAN bus.
+     */
+    final CanBusMonitor.Bus bus;
+    /**
+     * How long checks of the device take, recorded by its scheduler.
+     */
+    final LatencyHistogram checkLatency = new LatencyHistogram();
+    /**
+     * How far the check period has backed off while the device stayed healthy, as a multiple of
+     * the base period.
+     */
+    double backoff = 1.0;
+    /**
+     * The period the device was last scheduled at, in seconds.
+     */
+    double period;
+    /**
+     * The time the device should next be checked.
+     */
+    double nextDue;
+    /**
+     * The time the device was last checked, or NaN if it has not been checked.
+     */
+    double lastChecked = Double.NaN;
+    /**
+     * Whether each of the last 8 checks went over budget, the most recent check in the lowest bit.
+     */
+    int slowChecks;
+
+    /**
+     * Creates a new MonitoredDevice.
+     *
+     * @param owner      The subsystem the device is registered to
+     * @param device     The device
+     * @param basePeriod How often the device is checked, in seconds
+     */
+    MonitoredDevice(AdvancedSubsystem owner, SelfChecking device, double basePeriod) {
+        this.owner = owner;
+        this.device = device;
+        this.basePeriod = basePeriod;
+        this.period = basePeriod;
+        this.slowCheckFault = new FaultDescriptor(device.getLabel(), HealthScheduler.SLOW_CHECK);
+        this.faultState = owner.createFaultState(device);
+        this.bus = owner.scheduler.canBuses.getBus(device.getNetwork());
+    }
+}
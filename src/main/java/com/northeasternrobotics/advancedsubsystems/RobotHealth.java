@@ -0,0 +1,208 @@
+package com.northeasternrobotics.advancedsubsystems;
+
+import com.northeasternrobotics.advancedsubsystems.AdvancedSubsystem.SystemStatus;
+import edu.wpi.first.networktables.BooleanPublisher;
+import edu.wpi.first.networktables.IntegerPublisher;
+import edu.wpi.first.networktables.NetworkTable;
+import edu.wpi.first.networktables.NetworkTableInstance;
+import edu.wpi.first.networktables.StringArrayPublisher;
+import edu.wpi.first.networktables.StringPublisher;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The health of the whole robot, combined from every AdvancedSubsystem. Subsystems join
+ * automatically when they are constructed and report to it only when their faults change, and
+ * the totals are published under SmartDashboard/SystemStatus/Robot.
+ */
+public final class RobotHealth {
+    /**
+     * How many of the most recently detected faults are kept in the robot wide feed.
+     */
+    public static final int RECENT_FAULTS = 32;
+
+    private static final List<AdvancedSubsystem> subsystems = new ArrayList<>();
+    private static final int[] subsystemsByStatus = new int[SystemStatus.values().length];
+    private static final String[] recentFaults = new String[RECENT_FAULTS];
+    private static int recentFaultCount;
+    private static int errors;
+    private static int warnings;
+    private static int version;
+    private static Publishers publishers;
+
+    private RobotHealth() {
+    }
+
+    /**
+     * Adds a subsystem to the robot wide health.
+     *
+     * @param subsystem The subsystem joining
+     * @return The handle the subsystem reports its faults through
+     */
+    static synchronized Member join(AdvancedSubsystem subsystem) {
+        subsystems.add(subsystem);
+        subsystemsByStatus[SystemStatus.OK.ordinal()]++;
+        version++;
+        if (publishers == null) {
+            publishers = new Publishers();
+        }
+        publish();
+        return new Member(subsystem.getName());
+    }
+
+    /**
+     * @return The worst status of any subsystem
+     */
+    public static synchronized SystemStatus getStatus() {
+        if (subsystemsByStatus[SystemStatus.ERROR.ordinal()] > 0) {
+            return SystemStatus.ERROR;
+        }
+        return subsystemsByStatus[SystemStatus.WARNING.ordinal()] > 0 ? SystemStatus.WARNING : SystemStatus.OK;
+    }
+
+    /**
+     * @return The number of errors recorded across all subsystems
+     */
+    public static synchronized int getErrorCount() {
+        return errors;
+    }
+
+    /**
+     * @return The number of warnings recorded across all subsystems
+     */
+    public static synchronized int getWarningCount() {
+        return warnings;
+    }
+
+    /**
+     * @param status A status
+     * @return The number of subsystems currently in that status
+     */
+    public static synchronized int getSubsystemCount(SystemStatus status) {
+        return subsystemsByStatus[status.ordinal()];
+    }
+
+    /**
+     * @return Every AdvancedSubsystem constructed so far, in construction order
+     */
+    public static synchronized List<AdvancedSubsystem> getSubsystems() {
+        return Collections.unmodifiableList(new ArrayList<>(subsystems));
+    }
+
+    /**
+     * @return A counter that changes whenever a subsystem joins or its faults change
+     */
+    static synchronized int getVersion() {
+        return version;
+    }
+
+    /**
+     * @return The most recently detected faults of all subsystems, oldest first
+     */
+    public static synchronized String[] getRecentFaults() {
+        int count = Math.min(recentFaultCount, RECENT_FAULTS);
+        String[] feed = new String[count];
+        for (int i = 0; i < count; i++) {
+            feed[i] = recentFaults[(recentFaultCount - count + i) % RECENT_FAULTS];
+        }
+        return feed;
+    }
+
+    private static void publish() {
+        SystemStatus status = getStatus();
+        publishers.status.set(status.name());
+        publishers.systemOk.set(status == SystemStatus.OK);
+        publishers.errors.set(errors);
+        publishers.warnings.set(warnings);
+        publishers.subsystemsOk.set(subsystemsByStatus[SystemStatus.OK.ordinal()]);
+        publishers.subsystemsWarning.set(subsystemsByStatus[SystemStatus.WARNING.ordinal()]);
+        publishers.subsystemsError.set(subsystemsByStatus[SystemStatus.ERROR.ordinal()]);
+    }
+
+    private static void publishRecentFaults() {
+        String[] feed = getRecentFaults();
+        publishers.recentFaults.set(feed);
+        publishers.lastFault.set(feed.length > 0 ? feed[feed.length - 1] : "");
+    }
+
+    /**
+     * A subsystem's membership in the robot wide health, remembering what it last reported so
+     * the totals can be updated by difference.
+     */
+    static final class Member {
+        private final String name;
+        private SystemStatus status = SystemStatus.OK;
+        private int errors;
+        private int warnings;
+        private long lastSequence;
+
+        private Member(String name) {
+            this.name = name;
+        }
+
+        /**
+         * Reports a change in the subsystem's faults.
+         *
+         * @param status   The status of the subsystem
+         * @param errors   The number of errors recorded by the subsystem
+         * @param warnings The number of warnings recorded by the subsystem
+         * @param faults   The faults recorded by the subsystem
+         */
+        void update(SystemStatus status, int errors, int warnings, List<SubsystemFault> faults) {
+            synchronized (RobotHealth.class) {
+                subsystemsByStatus[this.status.ordinal()]--;
+                subsystemsByStatus[status.ordinal()]++;
+                RobotHealth.errors += errors - this.errors;
+                RobotHealth.warnings += warnings - this.warnings;
+                this.status = status;
+                this.errors = errors;
+                this.warnings = warnings;
+                version++;
+
+                boolean newFaults = false;
+                for (int i = 0; i < faults.size(); i++) {
+                    SubsystemFault fault = faults.get(i);
+                    if (fault.sequence > lastSequence) {
+                        lastSequence = fault.sequence;
+                        recentFaults[recentFaultCount++ % RECENT_FAULTS] = name + ": " + fault;
+                        newFaults = true;
+                    }
+                }
+
+                publish();
+                if (newFaults) {
+                    publishRecentFaults();
+                }
+            }
+        }
+    }
+
+    private static final class Publishers {
+        final StringPublisher status;
+        final BooleanPublisher systemOk;
+        final IntegerPublisher errors;
+        final IntegerPublisher warnings;
+        final IntegerPublisher subsystemsOk;
+        final IntegerPublisher subsystemsWarning;
+        final IntegerPublisher subsystemsError;
+        final StringArrayPublisher recentFaults;
+        final StringPublisher lastFault;
+
+        Publishers() {
+            NetworkTable table = NetworkTableInstance.getDefault().getTable("SmartDashboard").getSubTable("SystemStatus/Robot");
+            status = table.getStringTopic("Status").publish();
+            systemOk = table.getBooleanTopic("SystemOK").publish();
+            errors = table.getIntegerTopic("Errors").publish();
+            warnings = table.getIntegerTopic("Warnings").publish();
+            subsystemsOk = table.getIntegerTopic("SubsystemsOK").publish();
+            subsystemsWarning = table.getIntegerTopic("SubsystemsWarning").publish();
+            subsystemsError = table.getIntegerTopic("SubsystemsError").publish();
+            recentFaults = table.getStringArrayTopic("RecentFaults").publish();
+            lastFault = table.getStringTopic("LastFault").publish();
+            lastFault.set("");
+            recentFaults.set(new String[0]);
+        }
+    }
+}
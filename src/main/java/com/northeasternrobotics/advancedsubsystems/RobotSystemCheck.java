@@ -0,0 +1,117 @@
+package com.northeasternrobotics.advancedsubsystems;
+
+import com.northeasternrobotics.advancedsubsystems.AdvancedSubsystem.SystemStatus;
+import edu.wpi.first.networktables.BooleanPublisher;
+import edu.wpi.first.networktables.DoublePublisher;
+import edu.wpi.first.networktables.IntegerPublisher;
+import edu.wpi.first.networktables.NetworkTable;
+import edu.wpi.first.networktables.NetworkTableInstance;
+import edu.wpi.first.networktables.StringArrayPublisher;
+import edu.wpi.first.wpilibj.Timer;
+import edu.wpi.first.wpilibj2.command.Command;
+import edu.wpi.first.wpilibj2.command.CommandBase;
+import edu.wpi.first.wpilibj2.command.Commands;
+import edu.wpi.first.wpilibj2.command.Subsystem;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Checks the whole robot at once. The system checks of every AdvancedSubsystem are grouped into
+ * stages by their requirements, checks that don't share a requirement run at the same time, and
+ * the stages run one after another, so the whole check takes about as long as its slowest
+ * stage instead of the sum of every check.
+ *
+ * <p>Progress and results are published under SmartDashboard/SystemStatus/Robot/SystemCheck:
+ * Running, Duration (seconds), Stages, and Results with a "Name: STATUS (seconds)" entry per
+ * subsystem.
+ */
+public final class RobotSystemCheck {
+    private static BooleanPublisher runningPublisher;
+    private static DoublePublisher durationPublisher;
+    private static IntegerPublisher stagesPublisher;
+    private static StringArrayPublisher resultsPublisher;
+
+    private RobotSystemCheck() {
+    }
+
+    /**
+     * Builds a command that runs the system check of every AdvancedSubsystem created so far.
+     * Call it after all subsystems are created, for example at the end of RobotContainer, and
+     * bind it to a button or put it on SmartDashboard.
+     *
+     * @return The whole robot system check
+     */
+    public static CommandBase create() {
+        List<AdvancedSubsystem> subsystems = RobotHealth.getSubsystems();
+        String[] results = new String[subsystems.size()];
+        double[] startTime = new double[1];
+
+        // Greedy first-fit: each check joins the first stage it doesn't conflict with
+        List<List<Command>> stages = new ArrayList<>();
+        List<Set<Subsystem>> stageRequirements = new ArrayList<>();
+        for (int i = 0; i < subsystems.size(); i++) {
+            AdvancedSubsystem subsystem = subsystems.get(i);
+            results[i] = subsystem.getName() + ": NOT RUN";
+            Command check = timedCheck(subsystem, subsystem.getSystemCheckCommand(), results, i);
+            Set<Subsystem> requirements = check.getRequirements();
+
+            int stage = 0;
+            while (stage < stages.size() && !Collections.disjoint(stageRequirements.get(stage), requirements)) {
+                stage++;
+            }
+            if (stage == stages.size()) {
+                stages.add(new ArrayList<>());
+                stageRequirements.add(new HashSet<>());
+            }
+            stages.get(stage).add(check);
+            stageRequirements.get(stage).addAll(requirements);
+        }
+
+        Command[] stageCommands = new Command[stages.size()];
+        for (int i = 0; i < stageCommands.length; i++) {
+            stageCommands[i] = Commands.parallel(stages.get(i).toArray(new Command[0]));
+        }
+        int stageCount = stageCommands.length;
+
+        CommandBase command = Commands.sequence(
+                Commands.runOnce(() -> {
+                    startTime[0] = Timer.getFPGATimestamp();
+                    initPublishers();
+                    runningPublisher.set(true);
+                    stagesPublisher.set(stageCount);
+                    resultsPublisher.set(results.clone());
+                }),
+                Commands.sequence(stageCommands),
+                Commands.runOnce(() -> durationPublisher.set(Timer.getFPGATimestamp() - startTime[0])))
+                .finallyDo(interrupted -> runningPublisher.set(false));
+        command.setName("RobotSystemCheck");
+        return command;
+    }
+
+    private static Command timedCheck(AdvancedSubsystem subsystem, Command check, String[] results, int index) {
+        double[] startTime = new double[1];
+        return Commands.sequence(
+                Commands.runOnce(() -> startTime[0] = Timer.getFPGATimestamp()),
+                check,
+                Commands.runOnce(() -> {
+                    SystemStatus status = subsystem.getSystemStatus();
+                    results[index] = String.format("%s: %s (%.1fs)", subsystem.getName(), status.name(),
+                            Timer.getFPGATimestamp() - startTime[0]);
+                    resultsPublisher.set(results.clone());
+                }));
+    }
+
+    private static synchronized void initPublishers() {
+        if (runningPublisher == null) {
+            NetworkTable table = NetworkTableInstance.getDefault().getTable("SmartDashboard").getSubTable("SystemStatus/Robot/SystemCheck");
+            runningPublisher = table.getBooleanTopic("Running").publish();
+            durationPublisher = table.getDoubleTopic("Duration").publish();
+            stagesPublisher = table.getIntegerTopic("Stages").publish();
+            resultsPublisher = table.getStringArrayTopic("Results").publish();
+        }
+    }
+}
@@ -0,0 +1,202 @@
+package com.northeasternrobotics.advancedsubsystems;
+
+import com.northeasternrobotics.advancedsubsystems.AdvancedSubsystem.SystemStatus;
+import edu.wpi.first.networktables.BooleanPublisher;
+import edu.wpi.first.networktables.DoublePublisher;
+import edu.wpi.first.networktables.IntegerArrayPublisher;
+import edu.wpi.first.networktables.IntegerPublisher;
+import edu.wpi.first.networktables.NetworkTable;
+import edu.wpi.first.networktables.NetworkTableInstance;
+import edu.wpi.first.networktables.StringArrayPublisher;
+import edu.wpi.first.networktables.StringPublisher;
+
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Publishes the status of an AdvancedSubsystem to NetworkTables. Publishers are created once and
+ * values are only sent when they change, so an unchanged subsystem costs nothing to publish.
+ */
+final class StatusPublisher {
+    /**
+     * The number of values each fault takes in FaultData: code, device ID, timestamp in
+     * milliseconds and flags.
+     */
+    static final int FAULT_DATA_STRIDE = 4;
+    /**
+     * Set in the flags of a fault in FaultData when it is a warning.
+     */
+    static final long FLAG_WARNING = 1;
+    /**
+     * Set in the flags of a fault in FaultData when it is sticky.
+     */
+    static final long FLAG_STICKY = 2;
+
+    private static final String[] NO_FAULT_TEXT = new String[0];
+    private static volatile boolean publishFaultText = true;
+    // Changed on every toggle, so each publisher clears or resends its text once
+    private static volatile int faultTextVersion;
+
+    private final StringPublisher statusPublisher;
+    private final BooleanPublisher systemOkPublisher;
+    private final StringArrayPublisher faultsPublisher;
+    private final StringPublisher lastFaultPublisher;
+    private final IntegerArrayPublisher faultDataPublisher;
+    private final BooleanPublisher checkRanPublisher;
+    private final NetworkTable timingTable;
+    private final HistogramPublisher checkTimingPublisher;
+    private final HistogramPublisher publishTimingPublisher;
+    private final Map<MonitoredDevice, HistogramPublisher> deviceTiming = new IdentityHashMap<>();
+    private SystemStatus lastStatus;
+    private List<SubsystemFault> lastFaults;
+    private int publishedTextVersion;
+
+    /**
+     * Creates a new StatusPublisher.
+     *
+     * @param statusTable The table to publish to, relative to SmartDashboard
+     */
+    StatusPublisher(String statusTable) {
+        this(NetworkTableInstance.getDefault(), statusTable);
+    }
+
+    /**
+     * Creates a new StatusPublisher.
+     *
+     * @param instance    The NetworkTables instance to publish to
+     * @param statusTable The table to publish to, relative to SmartDashboard
+     */
+    StatusPublisher(NetworkTableInstance instance, String statusTable) {
+        NetworkTable table = instance.getTable("SmartDashboard").getSubTable(statusTable);
+        statusPublisher = table.getStringTopic("Status").publish();
+        systemOkPublisher = table.getBooleanTopic("SystemOK").publish();
+        faultsPublisher = table.getStringArrayTopic("Faults").publish();
+        lastFaultPublisher = table.getStringTopic("LastFault").publish();
+        faultDataPublisher = table.getIntegerArrayTopic("FaultData").publish();
+        checkRanPublisher = table.getBooleanTopic("CheckRan").publish();
+        timingTable = table.getSubTable("Timing");
+        checkTimingPublisher = new HistogramPublisher(timingTable, "Check", "ChecksOverBudget");
+        publishTimingPublisher = new HistogramPublisher(timingTable, "Publish", null);
+    }
+
+    /**
+     * @param enabled Whether faults are also published as formatted strings alongside FaultData
+     */
+    static synchronized void setPublishFaultText(boolean enabled) {
+        publishFaultText = enabled;
+        faultTextVersion++;
+    }
+
+    /**
+     * Publishes the status and faults if they changed since they were last published.
+     *
+     * @param status The status of the subsystem
+     * @param faults The recorded faults, replaced with a new list whenever they change
+     */
+    void publish(SystemStatus status, List<SubsystemFault> faults) {
+        if (status != lastStatus) {
+            lastStatus = status;
+            statusPublisher.set(status.name());
+            systemOkPublisher.set(status == SystemStatus.OK);
+        }
+
+        int textVersion = faultTextVersion;
+        boolean publishText = publishFaultText;
+        if (textVersion != publishedTextVersion) {
+            publishedTextVersion = textVersion;
+            // Resend everything, or clear the text so dashboards don't show stale faults
+            lastFaults = null;
+            if (!publishText) {
+                faultsPublisher.set(NO_FAULT_TEXT);
+                lastFaultPublisher.set("");
+            }
+        }
+
+        if (faults != lastFaults) {
+            lastFaults = faults;
+            long[] faultData = new long[faults.size() * FAULT_DATA_STRIDE];
+            for (int i = 0; i < faults.size(); i++) {
+                SubsystemFault fault = faults.get(i);
+                int offset = i * FAULT_DATA_STRIDE;
+                faultData[offset] = fault.code;
+                faultData[offset + 1] = fault.deviceId;
+                faultData[offset + 2] = Math.round(fault.timestamp * 1000);
+                faultData[offset + 3] = (fault.isWarning ? FLAG_WARNING : 0) | (fault.sticky ? FLAG_STICKY : 0);
+            }
+            faultDataPublisher.set(faultData);
+
+            if (publishText) {
+                String[] faultStrings = new String[faults.size()];
+                for (int i = 0; i < faults.size(); i++) {
+                    faultStrings[i] = faults.get(i).toString();
+                }
+                faultsPublisher.set(faultStrings);
+                lastFaultPublisher.set(faultStrings.length > 0 ? faultStrings[faultStrings.length - 1] : "");
+            }
+        }
+    }
+
+    /**
+     * Publishes how long device checks and status publishing take, in milliseconds, if anything
+     * was recorded since they were last published. The max of each histogram is reset once it is
+     * published, so it is the longest time since the last publish.
+     *
+     * @param checkLatency   How long device checks take
+     * @param publishLatency How long publishing status takes
+     * @param devices        The devices of the subsystem, published under Devices/Label
+     */
+    void publishTiming(LatencyHistogram checkLatency, LatencyHistogram publishLatency,
+                       List<MonitoredDevice> devices) {
+        checkTimingPublisher.publish(checkLatency);
+        publishTimingPublisher.publish(publishLatency);
+        for (int i = 0; i < devices.size(); i++) {
+            MonitoredDevice device = devices.get(i);
+            HistogramPublisher publisher = deviceTiming.get(device);
+            if (publisher == null) {
+                publisher = new HistogramPublisher(timingTable.getSubTable("Devices/" + device.device.getLabel()),
+                        "Check", "ChecksOverBudget");
+                deviceTiming.put(device, publisher);
+            }
+            publisher.publish(device.checkLatency);
+        }
+    }
+
+    /**
+     * @param checkRan Whether the system check has finished running
+     */
+    void setCheckRan(boolean checkRan) {
+        checkRanPublisher.set(checkRan);
+    }
+
+    // Publishes the percentiles and window max of one histogram
+    private static final class HistogramPublisher {
+        private final DoublePublisher p50Publisher;
+        private final DoublePublisher p99Publisher;
+        private final DoublePublisher maxPublisher;
+        private final IntegerPublisher overBudgetPublisher;
+        private long lastCount = -1;
+
+        HistogramPublisher(NetworkTable table, String prefix, String overBudgetName) {
+            p50Publisher = table.getDoubleTopic(prefix + "P50").publish();
+            p99Publisher = table.getDoubleTopic(prefix + "P99").publish();
+            maxPublisher = table.getDoubleTopic(prefix + "Max").publish();
+            overBudgetPublisher = overBudgetName != null ? table.getIntegerTopic(overBudgetName).publish() : null;
+        }
+
+        void publish(LatencyHistogram histogram) {
+            long count = histogram.getCount();
+            if (count == lastCount) {
+                return;
+            }
+            lastCount = count;
+            p50Publisher.set(histogram.percentile(0.5) / 1e6);
+            p99Publisher.set(histogram.percentile(0.99) / 1e6);
+            maxPublisher.set(histogram.getWindowMax() / 1e6);
+            histogram.resetWindowMax();
+            if (overBudgetPublisher != null) {
+                overBudgetPublisher.set(histogram.getOverBudget());
+            }
+        }
+    }
+}
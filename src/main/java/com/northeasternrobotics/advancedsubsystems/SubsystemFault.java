@@ -6,12 +6,16 @@ import edu.wpi.first.wpilibj.Timer;
  * A fault detected by a subsystem.
  */
 public class SubsystemFault {
+    /**
+     * The descriptor of the fault.
+     */
+    public final FaultDescriptor descriptor;
     /**
      * A description of the fault.
      */
     public final String description;
     /**
-     * The time at which the fault was detected.
+     * The time at which the fault was first detected.
      */
     public final double timestamp;
     /**
@@ -22,6 +26,26 @@ public class SubsystemFault {
      * Whether the fault is sticky.
      */
     public final boolean sticky;
+    /**
+     * The robot-wide ID of the device that reported the fault, 0 if it is not tied to a device.
+     */
+    public final int deviceId;
+    /**
+     * The robot-wide code of the kind of fault.
+     */
+    public final int code;
+    // Updated by the thread checking for faults, volatile so other threads never see a torn value
+    volatile int occurrences = 1;
+    volatile double lastSeen;
+    // Neighbours in the registry's expiry queue, which is ordered by lastSeen
+    SubsystemFault older;
+    SubsystemFault newer;
+    // Neighbours in the registry's list of faults, which is ordered by when they were first detected
+    SubsystemFault earlier;
+    SubsystemFault later;
+    // Order in which the fault was recorded by its subsystem, later faults have larger values
+    long sequence;
+    private String formatted;
 
     /**
      * Creates a new SubsystemFault.
@@ -50,10 +74,52 @@ public class SubsystemFault {
      * @param sticky      Whether the fault is sticky.
      */
     public SubsystemFault(String description, boolean isWarning, boolean sticky) {
-        this.description = description;
-        this.timestamp = Timer.getFPGATimestamp();
-        this.isWarning = isWarning;
-        this.sticky = sticky;
+        this(new FaultDescriptor(description, isWarning, sticky));
+    }
+
+    /**
+     * Creates a new SubsystemFault from a descriptor reported by a device.
+     *
+     * @param descriptor The descriptor of the fault.
+     */
+    public SubsystemFault(FaultDescriptor descriptor) {
+        this(descriptor, Timer.getFPGATimestamp());
+    }
+
+    SubsystemFault(FaultDescriptor descriptor, double timestamp) {
+        this.descriptor = descriptor;
+        this.description = descriptor.description;
+        this.timestamp = timestamp;
+        this.lastSeen = timestamp;
+        this.isWarning = descriptor.isWarning;
+        this.sticky = descriptor.sticky;
+        this.deviceId = descriptor.deviceId;
+        this.code = descriptor.code;
+    }
+
+    /**
+     * @return The number of times the fault has been reported since it was first detected.
+     */
+    public int getOccurrences() {
+        return occurrences;
+    }
+
+    /**
+     * @return The time at which the fault was last reported.
+     */
+    public double getLastSeen() {
+        return lastSeen;
+    }
+
+    /**
+     * @return The fault formatted as "[timestamp] description", built once and then cached.
+     */
+    @Override
+    public String toString() {
+        if (formatted == null) {
+            formatted = String.format("[%.2f] %s", timestamp, description);
+        }
+        return formatted;
     }
 
     /**
@@ -75,4 +141,9 @@ public class SubsystemFault {
         }
         return false;
     }
-}
\ No newline at end of file
+
+    @Override
+    public int hashCode() {
+        return descriptor.hashCode();
+    }
+}
@@ -0,0 +1,52 @@
+package com.northeasternrobotics.advancedsubsystems.selfcheck;
+
+import com.ctre.phoenix.ErrorCode;
+import com.northeasternrobotics.advancedsubsystems.FaultDescriptor;
+import com.northeasternrobotics.advancedsubsystems.FaultKind;
+import com.revrobotics.REVLibError;
+
+import java.util.EnumMap;
+import java.util.function.Function;
+
+/**
+ * Caches a descriptor per value of a vendor error enum so a repeated error does not allocate.
+ *
+ * @param <E> The error enum
+ */
+final class EnumFaultDescriptors<E extends Enum<E>> {
+    private final String label;
+    private final EnumMap<E, FaultDescriptor> descriptors;
+    private final Function<E, FaultKind> kindFactory;
+
+    EnumFaultDescriptors(String label, Class<E> type, Function<E, FaultKind> kindFactory) {
+        this.label = label;
+        this.descriptors = new EnumMap<>(type);
+        this.kindFactory = kindFactory;
+    }
+
+    // A single dropped frame is common on a busy bus, only errors that repeat are worth raising
+    static final int ERROR_RAISE_COUNT = 2;
+    static final int ERROR_CLEAR_COUNT = 3;
+    static final double ERROR_HOLD_TIME = 1.0;
+
+    static EnumFaultDescriptors<ErrorCode> forPhoenix(String label) {
+        return new EnumFaultDescriptors<>(label, ErrorCode.class,
+                err -> new FaultKind(String.format("Error Code (%s)", err.name()), err.value > 0)
+                        .withDebounce(ERROR_RAISE_COUNT, ERROR_CLEAR_COUNT, ERROR_HOLD_TIME));
+    }
+
+    static EnumFaultDescriptors<REVLibError> forRev(String label) {
+        return new EnumFaultDescriptors<>(label, REVLibError.class,
+                err -> new FaultKind(String.format("Error: %s", err.name()))
+                        .withDebounce(ERROR_RAISE_COUNT, ERROR_CLEAR_COUNT, ERROR_HOLD_TIME));
+    }
+
+    FaultDescriptor get(E value) {
+        FaultDescriptor descriptor = descriptors.get(value);
+        if (descriptor == null) {
+            descriptor = new FaultDescriptor(label, kindFactory.apply(value));
+            descriptors.put(value, descriptor);
+        }
+        return descriptor;
+    }
+}
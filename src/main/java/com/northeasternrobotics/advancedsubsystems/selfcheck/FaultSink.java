@@ -0,0 +1,48 @@
+package com.northeasternrobotics.advancedsubsystems.selfcheck;
+
+import com.northeasternrobotics.advancedsubsystems.FaultDescriptor;
+import edu.wpi.first.wpilibj.Timer;
+
+/**
+ * Receives the faults detected by a {@link SelfChecking} device.
+ */
+@FunctionalInterface
+public interface FaultSink {
+    /**
+     * @param fault The descriptor of a fault that is currently active
+     */
+    void report(FaultDescriptor fault);
+
+    /**
+     * The time of the check the faults are reported for, which devices sample their telemetry
+     * with so it is on the same clock as debouncing and expiry. Sinks that aren't fed by a
+     * scheduled check use the current time.
+     *
+     * @return The time of the check, in seconds
+     */
+    default double getTimestamp() {
+        return Timer.getFPGATimestamp();
+    }
+
+    /**
+     * Reports the faults of every set bit of a fault word. Sinks that remember the previous word
+     * of a device can override this to only look at the bits that changed. Bits past the end of
+     * the table, or whose descriptor is null, are ignored.
+     *
+     * @param bits        A word with bit i set when the i-th fault is active
+     * @param descriptors The descriptor of each bit, the same array on every check of a device,
+     *                    which must not be modified
+     */
+    default void report(long bits, FaultDescriptor[] descriptors) {
+        if (descriptors.length < Long.SIZE) {
+            bits &= (1L << descriptors.length) - 1;
+        }
+        while (bits != 0) {
+            FaultDescriptor descriptor = descriptors[Long.numberOfTrailingZeros(bits)];
+            if (descriptor != null) {
+                report(descriptor);
+            }
+            bits &= bits - 1;
+        }
+    }
+}
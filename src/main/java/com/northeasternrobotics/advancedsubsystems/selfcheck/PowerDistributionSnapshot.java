@@ -0,0 +1,69 @@
+package com.northeasternrobotics.advancedsubsystems.selfcheck;
+
+import edu.wpi.first.wpilibj.PowerDistribution;
+
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+/**
+ * The channel currents of a power distribution module, shared by every checker that monitors one
+ * of its channels. The currents of all monitored channels are read together at most once per
+ * robot loop, no matter how many devices and subsystems map channels on the module.
+ */
+final class PowerDistributionSnapshot {
+    /**
+     * How long a snapshot is reused before the currents are read again, in seconds.
+     */
+    static final double MAX_AGE = 0.02;
+
+    private static final Map<PowerDistribution, PowerDistributionSnapshot> snapshots = new IdentityHashMap<>();
+
+    private final PowerDistribution powerDistribution;
+    private final double[] currents;
+    private long channels;
+    private double timestamp = Double.NEGATIVE_INFINITY;
+
+    private PowerDistributionSnapshot(PowerDistribution powerDistribution) {
+        this.powerDistribution = powerDistribution;
+        this.currents = new double[Math.min(powerDistribution.getNumChannels(), Long.SIZE)];
+    }
+
+    /**
+     * @param powerDistribution A power distribution module
+     * @return The snapshot of the module, shared by every caller
+     */
+    static synchronized PowerDistributionSnapshot of(PowerDistribution powerDistribution) {
+        return snapshots.computeIfAbsent(powerDistribution, PowerDistributionSnapshot::new);
+    }
+
+    /**
+     * Adds a channel to the channels read on every snapshot.
+     *
+     * @param channel The channel
+     */
+    synchronized void addChannel(int channel) {
+        if (channel < 0 || channel >= currents.length) {
+            throw new IllegalArgumentException(String.format("Channel %d is not between 0 and %d",
+                    channel, currents.length - 1));
+        }
+        channels |= 1L << channel;
+    }
+
+    /**
+     * @param channel   A channel added with {@link #addChannel(int)}
+     * @param timestamp The current time, in seconds
+     * @return The current of the channel in the latest snapshot, in amps
+     */
+    synchronized double getCurrent(int channel, double timestamp) {
+        if (timestamp - this.timestamp >= MAX_AGE) {
+            this.timestamp = timestamp;
+            long remaining = channels;
+            while (remaining != 0) {
+                int next = Long.numberOfTrailingZeros(remaining);
+                currents[next] = powerDistribution.getCurrent(next);
+                remaining &= remaining - 1;
+            }
+        }
+        return currents[channel];
+    }
+}
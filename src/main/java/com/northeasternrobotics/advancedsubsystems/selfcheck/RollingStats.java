@@ -0,0 +1,163 @@
+package com.northeasternrobotics.advancedsubsystems.selfcheck;
+
+/**
+ * Statistics over the most recent samples of a signal, kept in fixed-size ring buffers so adding
+ * a sample and reading any statistic never allocates.
+ *
+ * <p>Only the thread that adds samples should read the statistics, other threads may see a mix
+ * of old and new samples.
+ */
+public final class RollingStats {
+    private final double[] times;
+    private final double[] values;
+    private final double ewmaGain;
+    private int count;
+    private int next;
+    private double ewma = Double.NaN;
+
+    /**
+     * Creates a new RollingStats.
+     *
+     * @param size     The number of samples to keep
+     * @param ewmaGain How much each new sample moves the exponentially weighted mean, between 0 and 1
+     */
+    public RollingStats(int size, double ewmaGain) {
+        if (size < 2) {
+            throw new IllegalArgumentException("At least two samples are needed for a slope");
+        }
+        this.times = new double[size];
+        this.values = new double[size];
+        this.ewmaGain = ewmaGain;
+    }
+
+    /**
+     * Adds a sample, replacing the oldest sample once the buffer is full.
+     *
+     * @param timestamp The time of the sample, in seconds
+     * @param value     The value of the sample
+     */
+    public void add(double timestamp, double value) {
+        times[next] = timestamp;
+        values[next] = value;
+        next = (next + 1) % values.length;
+        if (count < values.length) {
+            count++;
+        }
+        ewma = Double.isNaN(ewma) ? value : ewma + ewmaGain * (value - ewma);
+    }
+
+    /**
+     * @return The number of samples kept
+     */
+    public int getCount() {
+        return count;
+    }
+
+    /**
+     * @return The number of samples that can be kept
+     */
+    public int getSize() {
+        return values.length;
+    }
+
+    /**
+     * @return The most recent sample, or NaN if there are none
+     */
+    public double getLatest() {
+        return count > 0 ? values[(next - 1 + values.length) % values.length] : Double.NaN;
+    }
+
+    /**
+     * @return The smallest kept sample, or NaN if there are none
+     */
+    public double getMin() {
+        double min = Double.NaN;
+        for (int i = 0; i < count; i++) {
+            if (!(values[i] >= min)) {
+                min = values[i];
+            }
+        }
+        return min;
+    }
+
+    /**
+     * @return The largest kept sample, or NaN if there are none
+     */
+    public double getMax() {
+        double max = Double.NaN;
+        for (int i = 0; i < count; i++) {
+            if (!(values[i] <= max)) {
+                max = values[i];
+            }
+        }
+        return max;
+    }
+
+    /**
+     * @return The mean of the kept samples, or NaN if there are none
+     */
+    public double getMean() {
+        if (count == 0) {
+            return Double.NaN;
+        }
+        double sum = 0;
+        for (int i = 0; i < count; i++) {
+            sum += values[i];
+        }
+        return sum / count;
+    }
+
+    /**
+     * @return The exponentially weighted mean of every sample added, or NaN if there are none
+     */
+    public double getEwma() {
+        return ewma;
+    }
+
+    /**
+     * @return The least squares slope of the kept samples, in units per second, or 0 with fewer
+     * than two samples
+     */
+    public double getSlope() {
+        if (count < 2) {
+            return 0;
+        }
+        double meanTime = 0;
+        double meanValue = 0;
+        for (int i = 0; i < count; i++) {
+            meanTime += times[i];
+            meanValue += values[i];
+        }
+        meanTime /= count;
+        meanValue /= count;
+
+        double covariance = 0;
+        double variance = 0;
+        for (int i = 0; i < count; i++) {
+            double dt = times[i] - meanTime;
+            covariance += dt * (values[i] - meanValue);
+            variance += dt * dt;
+        }
+        return variance > 0 ? covariance / variance : 0;
+    }
+
+    /**
+     * Extrapolates the current trend from the exponentially weighted mean.
+     *
+     * @param limit The value to reach
+     * @param above Whether the limit is reached from below, otherwise from above
+     * @return How long until the trend reaches the limit, in seconds, 0 if it already has, or
+     * infinity if it is moving away from the limit
+     */
+    public double getTimeToReach(double limit, boolean above) {
+        if (count == 0) {
+            return Double.POSITIVE_INFINITY;
+        }
+        double remaining = above ? limit - ewma : ewma - limit;
+        if (remaining <= 0) {
+            return 0;
+        }
+        double rate = above ? getSlope() : -getSlope();
+        return rate > 0 ? remaining / rate : Double.POSITIVE_INFINITY;
+    }
+}
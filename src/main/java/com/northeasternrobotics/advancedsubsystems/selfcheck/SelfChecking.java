@@ -2,6 +2,7 @@ package com.northeasternrobotics.advancedsubsystems.selfcheck;
 
 import com.northeasternrobotics.advancedsubsystems.SubsystemFault;
 
+import java.util.ArrayList;
 import java.util.List;
 
 /**
@@ -9,7 +10,42 @@ import java.util.List;
  */
 public interface SelfChecking {
     /**
+     * The network name of the roboRIO CAN bus.
+     */
+    String RIO_BUS = "rio";
+
+    /**
+     * Reports every fault currently detected by this device to the sink. Implementations should
+     * reuse descriptors built when the device was registered so a check cycle does not allocate.
+     *
+     * @param sink The sink to report faults to
+     */
+    void checkForFaults(FaultSink sink);
+
+    /**
+     * @return The name of the device, used for faults about the device itself
+     */
+    default String getLabel() {
+        return getClass().getSimpleName();
+    }
+
+    /**
+     * @return The CAN bus the device is on, {@link #RIO_BUS} or the name of a CANivore, or null
+     * if the device is not on a CAN bus
+     */
+    default String getNetwork() {
+        return null;
+    }
+
+    /**
+     * Collects the faults detected by this device into a new list. This allocates on every call,
+     * prefer {@link #checkForFaults(FaultSink)} when checking periodically.
+     *
      * @return a list of faults detected by this device.
      */
-    List<SubsystemFault> checkForFaults();
-}
\ No newline at end of file
+    default List<SubsystemFault> checkForFaults() {
+        List<SubsystemFault> faults = new ArrayList<>();
+        checkForFaults(fault -> faults.add(new SubsystemFault(fault)));
+        return faults;
+    }
+}
@@ -0,0 +1,128 @@
+package com.northeasternrobotics.advancedsubsystems.selfcheck;
+
+import com.northeasternrobotics.advancedsubsystems.FaultDescriptor;
+import com.northeasternrobotics.advancedsubsystems.FaultKind;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.DoubleSupplier;
+
+/**
+ * Base for devices whose faults are a fixed set of flags. The device reads all of its faults as
+ * one word per check, usually straight from a vendor bitfield, and the descriptor for each bit
+ * is built once in the constructor.
+ */
+public abstract class SelfCheckingBase implements SelfChecking {
+    // Limits of motor controllers constructed without their own
+    static final double DEFAULT_TEMPERATURE_LIMIT = 80.0;
+    static final double DEFAULT_SUPPLY_VOLTAGE_LIMIT = 8.0;
+
+    /**
+     * The name of the device
+     */
+    protected final String label;
+    private final FaultDescriptor[] descriptors;
+    // Bits that have a fault kind, anything else the vendor sets is ignored
+    private final long mask;
+    private final List<TelemetrySignal> telemetry = new ArrayList<>();
+    private final List<TelemetrySignal> telemetryView = Collections.unmodifiableList(telemetry);
+    private double checkTimestamp;
+
+    /**
+     * Creates a new SelfCheckingBase.
+     *
+     * @param label The name of the device
+     * @param kinds The kinds of fault the device can report, indexed by bit, null for bits
+     *              that are not faults
+     */
+    protected SelfCheckingBase(String label, FaultKind... kinds) {
+        if (kinds.length > Long.SIZE) {
+            throw new IllegalArgumentException("A device can report at most " + Long.SIZE + " kinds of fault");
+        }
+        this.label = label;
+        this.descriptors = new FaultDescriptor[kinds.length];
+        long mask = 0;
+        for (int i = 0; i < kinds.length; i++) {
+            if (kinds[i] != null) {
+                descriptors[i] = new FaultDescriptor(label, kinds[i]);
+                mask |= 1L << i;
+            }
+        }
+        this.mask = mask;
+    }
+
+    /**
+     * @param set   Whether the fault is active
+     * @param index The index of the fault kind
+     * @return The bit for the fault kind if it is active, otherwise 0
+     */
+    protected static long bit(boolean set, int index) {
+        return set ? 1L << index : 0L;
+    }
+
+    @Override
+    public String getLabel() {
+        return label;
+    }
+
+    /**
+     * Samples a signal every time the device is checked.
+     *
+     * @param signal The signal
+     */
+    protected void addTelemetry(TelemetrySignal signal) {
+        telemetry.add(signal);
+    }
+
+    /**
+     * Samples the usual signals of a motor controller, warning before the temperature reaches
+     * its limit or the supply voltage drops below its limit.
+     *
+     * @param temperature        The motor temperature, in degrees Celsius
+     * @param voltage            The supply voltage, in volts
+     * @param current            The motor current, in amps
+     * @param temperatureLimit   The highest temperature the motor should reach, in degrees Celsius
+     * @param supplyVoltageLimit The lowest supply voltage the motor should see, in volts
+     */
+    protected void addMotorTelemetry(DoubleSupplier temperature, DoubleSupplier voltage, DoubleSupplier current,
+                                     double temperatureLimit, double supplyVoltageLimit) {
+        addTelemetry(TelemetrySignal.upperLimit(label, "Temperature", "C", temperature,
+                temperatureLimit, TelemetrySignal.PREDICTION_HORIZON));
+        addTelemetry(TelemetrySignal.lowerLimit(label, "Supply voltage", "V", voltage,
+                supplyVoltageLimit, TelemetrySignal.PREDICTION_HORIZON));
+        addTelemetry(TelemetrySignal.unlimited("Current", current));
+    }
+
+    /**
+     * @return The signals sampled when the device is checked
+     */
+    public List<TelemetrySignal> getTelemetry() {
+        return telemetryView;
+    }
+
+    /**
+     * Reads the device and returns its active faults. Bits without a fault kind are ignored, so
+     * a vendor bitfield can be returned as is.
+     *
+     * @return A word with bit i set when the i-th fault kind is active
+     */
+    protected abstract long readFaultBits();
+
+    /**
+     * @return The time of the check in progress, from {@link FaultSink#getTimestamp()}
+     */
+    protected final double getCheckTimestamp() {
+        return checkTimestamp;
+    }
+
+    @Override
+    public void checkForFaults(FaultSink sink) {
+        checkTimestamp = sink.getTimestamp();
+        sink.report(readFaultBits() & mask, descriptors);
+
+        for (int i = 0; i < telemetry.size(); i++) {
+            telemetry.get(i).sample(checkTimestamp, sink);
+        }
+    }
+}
@@ -3,53 +3,68 @@ package com.northeasternrobotics.advancedsubsystems.selfcheck;
 import com.ctre.phoenix.ErrorCode;
 import com.ctre.phoenix.sensors.CANCoder;
 import com.ctre.phoenix.sensors.CANCoderFaults;
-import com.northeasternrobotics.advancedsubsystems.SubsystemFault;
-
-import java.util.ArrayList;
-import java.util.List;
+import com.northeasternrobotics.advancedsubsystems.FaultKind;
 
 /**
  * CAN Coder that automatically checks itself for faults.
  */
-public class SelfCheckingCANCoder implements SelfChecking {
-    private final String label;
+public class SelfCheckingCANCoder extends SelfCheckingBase {
+    static final FaultKind[] FAULT_KINDS = {
+            new FaultKind("Hardware fault detected"),
+            new FaultKind("Device booted while enabled"),
+            new FaultKind("Magnet too weak")
+    };
+
     private final CANCoder canCoder;
+    private final CANCoderFaults faults = new CANCoderFaults();
+    private final EnumFaultDescriptors<ErrorCode> errors;
+    private final String canBus;
 
     /**
-     * Creates a new SelfCheckingCANCoder.
+     * Creates a new SelfCheckingCANCoder on the roboRIO CAN bus.
      *
      * @param label    The name of the device
      * @param canCoder The device
      */
     public SelfCheckingCANCoder(String label, CANCoder canCoder) {
-        this.label = label;
+        this(label, canCoder, RIO_BUS);
+    }
+
+    /**
+     * Creates a new SelfCheckingCANCoder.
+     *
+     * @param label    The name of the device
+     * @param canCoder The device
+     * @param canBus   The CAN bus the device is on, {@link #RIO_BUS} or the name of a CANivore
+     */
+    public SelfCheckingCANCoder(String label, CANCoder canCoder, String canBus) {
+        super(label, FAULT_KINDS);
+        this.canBus = canBus;
         this.canCoder = canCoder;
+        this.errors = EnumFaultDescriptors.forPhoenix(label);
     }
 
     @Override
-    public List<SubsystemFault> checkForFaults() {
-        List<SubsystemFault> faults = new ArrayList<>();
+    public String getNetwork() {
+        return canBus;
+    }
 
-        CANCoderFaults f = new CANCoderFaults();
-        canCoder.getFaults(f);
+    @Override
+    protected long readFaultBits() {
+        canCoder.getFaults(faults);
 
-        if (f.HardwareFault) {
-            faults.add(new SubsystemFault(String.format("[%s]: Hardware fault detected", label)));
-        }
-        if (f.ResetDuringEn) {
-            faults.add(new SubsystemFault(String.format("[%s]: Device booted while enabled", label)));
-        }
-        if (f.MagnetTooWeak) {
-            faults.add(new SubsystemFault(String.format("[%s]: Magnet too weak", label)));
-        }
+        return bit(faults.HardwareFault, 0)
+                | bit(faults.ResetDuringEn, 1)
+                | bit(faults.MagnetTooWeak, 2);
+    }
+
+    @Override
+    public void checkForFaults(FaultSink sink) {
+        super.checkForFaults(sink);
 
         ErrorCode err = canCoder.getLastError();
         if (err != ErrorCode.OK) {
-            faults.add(
-                    new SubsystemFault(
-                            String.format("[%s]: Error Code (%s)", label, err.name()), err.value > 0));
+            sink.report(errors.get(err));
         }
-
-        return faults;
     }
 }
@@ -2,16 +2,19 @@ package com.northeasternrobotics.advancedsubsystems.selfcheck;
 
 import com.ctre.phoenixpro.StatusSignalValue;
 import com.ctre.phoenixpro.hardware.CANcoder;
-import com.northeasternrobotics.advancedsubsystems.SubsystemFault;
-
-import java.util.ArrayList;
-import java.util.List;
+import com.northeasternrobotics.advancedsubsystems.FaultKind;
 
 /**
  * CAN Coder Pro that automatically checks itself for faults.
  */
-public class SelfCheckingCANCoderPro implements SelfChecking {
-    private final String label;
+public class SelfCheckingCANCoderPro extends SelfCheckingPhoenixPro {
+    static final FaultKind[] FAULT_KINDS = {
+            new FaultKind("Hardware fault detected"),
+            new FaultKind("Device booted while enabled"),
+            new FaultKind("Magnet too weak"),
+            new FaultKind("Under voltage")
+    };
+
     private final StatusSignalValue<Boolean> hardwareFaultSignal;
     private final StatusSignalValue<Boolean> bootEnabledSignal;
     private final StatusSignalValue<Boolean> badMagnetSignal;
@@ -24,31 +27,32 @@ public class SelfCheckingCANCoderPro implements SelfChecking {
      * @param canCoder The device
      */
     public SelfCheckingCANCoderPro(String label, CANcoder canCoder) {
-        this.label = label;
+        this(label, canCoder, null);
+    }
+
+    /**
+     * Creates a new SelfCheckingCANCoderPro whose signals are refreshed by a shared batch.
+     *
+     * @param label    The name of the device
+     * @param canCoder The device
+     * @param batch    The batch that refreshes the signals, or null to refresh them when checking
+     */
+    public SelfCheckingCANCoderPro(String label, CANcoder canCoder, StatusSignalBatch batch) {
+        super(label, batch, FAULT_KINDS);
 
         this.hardwareFaultSignal = canCoder.getFault_Hardware();
         this.bootEnabledSignal = canCoder.getFault_BootDuringEnable();
         this.badMagnetSignal = canCoder.getFault_BadMagnet();
         this.undervoltageSignal = canCoder.getFault_Undervoltage();
+        useSignals(canCoder.getNetwork(), hardwareFaultSignal, bootEnabledSignal, badMagnetSignal,
+                undervoltageSignal);
     }
 
     @Override
-    public List<SubsystemFault> checkForFaults() {
-        List<SubsystemFault> faults = new ArrayList<>();
-
-        if (hardwareFaultSignal.refresh().getValue()) {
-            faults.add(new SubsystemFault(String.format("[%s]: Hardware fault detected", label)));
-        }
-        if (bootEnabledSignal.refresh().getValue()) {
-            faults.add(new SubsystemFault(String.format("[%s]: Device booted while enabled", label)));
-        }
-        if (badMagnetSignal.refresh().getValue()) {
-            faults.add(new SubsystemFault(String.format("[%s]: Magnet too weak", label)));
-        }
-        if (undervoltageSignal.refresh().getValue()) {
-            faults.add(new SubsystemFault(String.format("[%s]: Under voltage", label)));
-        }
-
-        return faults;
+    protected long readFaultBits() {
+        return bit(isActive(hardwareFaultSignal), 0)
+                | bit(isActive(bootEnabledSignal), 1)
+                | bit(isActive(badMagnetSignal), 2)
+                | bit(isActive(undervoltageSignal), 3);
     }
 }
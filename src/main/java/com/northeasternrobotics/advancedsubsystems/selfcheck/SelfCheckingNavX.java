@@ -1,16 +1,21 @@
 package com.northeasternrobotics.advancedsubsystems.selfcheck;
 
 import com.kauailabs.navx.frc.AHRS;
-import com.northeasternrobotics.advancedsubsystems.SubsystemFault;
-
-import java.util.ArrayList;
-import java.util.List;
+import com.northeasternrobotics.advancedsubsystems.FaultKind;
 
 /**
  * Nav X that automatically checks itself for faults.
  */
-public class SelfCheckingNavX implements SelfChecking {
-    private final String label;
+public class SelfCheckingNavX extends SelfCheckingBase {
+    static final FaultKind[] FAULT_KINDS = {
+            new FaultKind("NavX is disconnected"),
+            new FaultKind("NavX is calibrating"),
+            new FaultKind("NavX magnetometer is not calibrated", true),
+            // Comes and goes as the robot drives past steel, so it is only raised once it persists
+            new FaultKind("NavX is experiencing a magnetic disturbance", true).withDebounce(3, 5, 2.0),
+            new FaultKind("NavX altitude is invalid")
+    };
+
     private final AHRS navx;
 
     /**
@@ -20,30 +25,16 @@ public class SelfCheckingNavX implements SelfChecking {
      * @param navx  The device
      */
     public SelfCheckingNavX(String label, AHRS navx) {
-        this.label = label;
+        super(label, FAULT_KINDS);
         this.navx = navx;
     }
 
     @Override
-    public List<SubsystemFault> checkForFaults() {
-        List<SubsystemFault> faults = new ArrayList<>();
-
-        if (!navx.isConnected()) {
-            faults.add(new SubsystemFault(String.format("[%s]: NavX is disconnected", label)));
-        }
-        if (navx.isCalibrating()) {
-            faults.add(new SubsystemFault(String.format("[%s]: NavX is calibrating", label)));
-        }
-        if (!navx.isMagnetometerCalibrated()) {
-            faults.add(new SubsystemFault(String.format("[%s]: NavX magnetometer is not calibrated", label), true));
-        }
-        if (navx.isMagneticDisturbance()) {
-            faults.add(new SubsystemFault(String.format("[%s]: NavX is experiencing a magnetic disturbance", label), true));
-        }
-        if (navx.isAltitudeValid()) {
-            faults.add(new SubsystemFault(String.format("[%s]: NavX altitude is invalid", label)));
-        }
-
-        return faults;
+    protected long readFaultBits() {
+        return bit(!navx.isConnected(), 0)
+                | bit(navx.isCalibrating(), 1)
+                | bit(!navx.isMagnetometerCalibrated(), 2)
+                | bit(navx.isMagneticDisturbance(), 3)
+                | bit(navx.isAltitudeValid(), 4);
     }
 }
@@ -1,16 +1,16 @@
 package com.northeasternrobotics.advancedsubsystems.selfcheck;
 
-import com.northeasternrobotics.advancedsubsystems.SubsystemFault;
+import com.northeasternrobotics.advancedsubsystems.FaultKind;
 import edu.wpi.first.wpilibj.motorcontrol.PWMMotorController;
 
-import java.util.ArrayList;
-import java.util.List;
-
 /**
  * PWM Motor Controller that automatically checks itself for faults.
  */
-public class SelfCheckingPWMMotor implements SelfChecking {
-    private final String label;
+public class SelfCheckingPWMMotor extends SelfCheckingBase {
+    static final FaultKind[] FAULT_KINDS = {
+            new FaultKind("Device timed out")
+    };
+
     private final PWMMotorController motor;
 
     /**
@@ -20,18 +20,12 @@ public class SelfCheckingPWMMotor implements SelfChecking {
      * @param motor The device
      */
     public SelfCheckingPWMMotor(String label, PWMMotorController motor) {
-        this.label = label;
+        super(label, FAULT_KINDS);
         this.motor = motor;
     }
 
     @Override
-    public List<SubsystemFault> checkForFaults() {
-        List<SubsystemFault> faults = new ArrayList<>();
-
-        if (!motor.isAlive()) {
-            faults.add(new SubsystemFault(String.format("[%s]: Device timed out", label)));
-        }
-
-        return faults;
+    protected long readFaultBits() {
+        return bit(!motor.isAlive(), 0);
     }
-}
\ No newline at end of file
+}
@@ -3,59 +3,112 @@ package com.northeasternrobotics.advancedsubsystems.selfcheck;
 import com.ctre.phoenix.ErrorCode;
 import com.ctre.phoenix.motorcontrol.Faults;
 import com.ctre.phoenix.motorcontrol.can.BaseMotorController;
-import com.northeasternrobotics.advancedsubsystems.SubsystemFault;
-
-import java.util.ArrayList;
-import java.util.List;
+import com.ctre.phoenix.motorcontrol.can.BaseTalon;
+import com.northeasternrobotics.advancedsubsystems.FaultKind;
 
 /**
  * Phoenix Motor Controller that automatically checks itself for faults.
  */
-public class SelfCheckingPhoenixMotor implements SelfChecking {
-    private final String label;
+public class SelfCheckingPhoenixMotor extends SelfCheckingBase {
+    // Indexed by the bits of Faults.toBitfield(), limit switches and soft limits are not faults
+    static final FaultKind[] FAULT_KINDS = {
+            new FaultKind("Under voltage", true),
+            null,
+            null,
+            null,
+            null,
+            new FaultKind("Hardware failure detected"),
+            new FaultKind("Device booted while enabled"),
+            new FaultKind("Sensor position overflowed", true),
+            new FaultKind("Sensor out of phase", true),
+            new FaultKind("Device reset from electrostatic discharge"),
+            new FaultKind("Lost signal from remote sensor"),
+            new FaultKind("API error", true),
+            new FaultKind("Supply over voltage", true),
+            new FaultKind("Supply voltage unstable", true)
+    };
+
     private final BaseMotorController motor;
+    private final Faults faults = new Faults();
+    private final EnumFaultDescriptors<ErrorCode> errors;
+    private final String canBus;
 
     /**
-     * Creates a new SelfCheckingNavX.
+     * Creates a new SelfCheckingPhoenixMotor that warns before the motor reaches 80C or its
+     * supply drops below 8V.
      *
      * @param label The name of the device
      * @param motor The device
      */
     public SelfCheckingPhoenixMotor(String label, BaseMotorController motor) {
-        this.label = label;
+        this(label, motor, RIO_BUS);
+    }
+
+    /**
+     * Creates a new SelfCheckingPhoenixMotor that warns before the motor reaches 80C or its
+     * supply drops below 8V.
+     *
+     * @param label  The name of the device
+     * @param motor  The device
+     * @param canBus The CAN bus the device is on, {@link #RIO_BUS} or the name of a CANivore
+     */
+    public SelfCheckingPhoenixMotor(String label, BaseMotorController motor, String canBus) {
+        this(label, motor, canBus, DEFAULT_TEMPERATURE_LIMIT, DEFAULT_SUPPLY_VOLTAGE_LIMIT);
+    }
+
+    /**
+     * Creates a new SelfCheckingPhoenixMotor on the roboRIO CAN bus.
+     *
+     * @param label              The name of the device
+     * @param motor              The device
+     * @param temperatureLimit   The highest temperature the motor should reach, in degrees Celsius
+     * @param supplyVoltageLimit The lowest supply voltage the motor should see, in volts
+     */
+    public SelfCheckingPhoenixMotor(String label, BaseMotorController motor, double temperatureLimit,
+                                    double supplyVoltageLimit) {
+        this(label, motor, RIO_BUS, temperatureLimit, supplyVoltageLimit);
+    }
+
+    /**
+     * Creates a new SelfCheckingPhoenixMotor.
+     *
+     * @param label              The name of the device
+     * @param motor              The device
+     * @param canBus             The CAN bus the device is on, {@link #RIO_BUS} or the name of a
+     *                           CANivore
+     * @param temperatureLimit   The highest temperature the motor should reach, in degrees Celsius
+     * @param supplyVoltageLimit The lowest supply voltage the motor should see, in volts
+     */
+    public SelfCheckingPhoenixMotor(String label, BaseMotorController motor, String canBus, double temperatureLimit,
+                                    double supplyVoltageLimit) {
+        super(label, FAULT_KINDS);
+        this.canBus = canBus;
         this.motor = motor;
+        this.errors = EnumFaultDescriptors.forPhoenix(label);
+        // Victors don't measure current
+        addMotorTelemetry(motor::getTemperature, motor::getBusVoltage,
+                motor instanceof BaseTalon ? ((BaseTalon) motor)::getStatorCurrent : () -> Double.NaN,
+                temperatureLimit, supplyVoltageLimit);
     }
 
     @Override
-    public List<SubsystemFault> checkForFaults() {
-        List<SubsystemFault> faults = new ArrayList<>();
+    public String getNetwork() {
+        return canBus;
+    }
 
-        Faults f = new Faults();
-        motor.getFaults(f);
+    @Override
+    protected long readFaultBits() {
+        motor.getFaults(faults);
+        return faults.toBitfield();
+    }
 
-        if (f.HardwareFailure) {
-            faults.add(new SubsystemFault(String.format("[%s]: Hardware failure detected", label)));
-        }
-        if (f.ResetDuringEn) {
-            faults.add(new SubsystemFault(String.format("[%s]: Device booted while enabled", label)));
-        }
-        if (f.SensorOutOfPhase) {
-            faults.add(new SubsystemFault(String.format("[%s]: Sensor out of phase", label), true));
-        }
-        if (f.RemoteLossOfSignal) {
-            faults.add(new SubsystemFault(String.format("[%s]: Lost signal from remote sensor", label)));
-        }
-        if (f.UnderVoltage) {
-            faults.add(new SubsystemFault(String.format("[%s]: Under voltage", label), true));
-        }
+    @Override
+    public void checkForFaults(FaultSink sink) {
+        super.checkForFaults(sink);
 
         ErrorCode err = motor.getLastError();
         if (err != ErrorCode.OK) {
-            faults.add(
-                    new SubsystemFault(
-                            String.format("[%s]: Error Code (%s)", label, err.name()), err.value > 0));
+            sink.report(errors.get(err));
         }
-
-        return faults;
     }
 }
@@ -0,0 +1,69 @@
+package com.northeasternrobotics.advancedsubsystems.selfcheck;
+
+import com.ctre.phoenixpro.BaseStatusSignalValue;
+import com.ctre.phoenixpro.StatusCode;
+import com.ctre.phoenixpro.StatusSignalValue;
+import com.northeasternrobotics.advancedsubsystems.FaultKind;
+
+/**
+ * Base for Phoenix Pro devices, which report faults through status signals. Signals are either
+ * refreshed one at a time by the device or all at once by a shared {@link StatusSignalBatch}.
+ */
+public abstract class SelfCheckingPhoenixPro extends SelfCheckingBase {
+    private final StatusSignalBatch batch;
+    private String network = RIO_BUS;
+
+    /**
+     * Creates a new SelfCheckingPhoenixPro.
+     *
+     * @param label The name of the device
+     * @param batch The batch that refreshes the signals, or null to refresh them when checking
+     * @param kinds The kinds of fault the device can report, indexed by bit
+     */
+    protected SelfCheckingPhoenixPro(String label, StatusSignalBatch batch, FaultKind... kinds) {
+        super(label, kinds);
+        this.batch = batch;
+    }
+
+    /**
+     * Adds the signals read by this device to its batch, if it has one.
+     *
+     * @param network The CAN bus of the device
+     * @param signals The signals read when checking for faults
+     */
+    protected void useSignals(String network, BaseStatusSignalValue... signals) {
+        this.network = network;
+        if (batch != null) {
+            batch.add(network, signals);
+        }
+    }
+
+    @Override
+    public String getNetwork() {
+        return network;
+    }
+
+    /**
+     * @param signal A fault signal
+     * @return Whether the fault is active
+     */
+    protected boolean isActive(StatusSignalValue<Boolean> signal) {
+        return (batch != null ? signal : signal.refresh()).getValue();
+    }
+
+    /**
+     * @param signal A continuous signal
+     * @return The value of the signal
+     */
+    protected double valueOf(StatusSignalValue<Double> signal) {
+        return (batch != null ? signal : signal.refresh()).getValue();
+    }
+
+    /**
+     * @param signal A signal
+     * @return Whether the signal could not be read
+     */
+    protected boolean hasError(StatusSignalValue<?> signal) {
+        return (batch != null ? signal : signal.refresh()).getError() != StatusCode.OK;
+    }
+}
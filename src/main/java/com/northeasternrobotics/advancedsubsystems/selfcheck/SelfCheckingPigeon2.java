@@ -3,62 +3,74 @@ package com.northeasternrobotics.advancedsubsystems.selfcheck;
 import com.ctre.phoenix.ErrorCode;
 import com.ctre.phoenix.sensors.Pigeon2;
 import com.ctre.phoenix.sensors.Pigeon2_Faults;
-import com.northeasternrobotics.advancedsubsystems.SubsystemFault;
-
-import java.util.ArrayList;
-import java.util.List;
+import com.northeasternrobotics.advancedsubsystems.FaultKind;
 
 /**
  * Pigeon 2 that automatically checks itself for faults.
  */
-public class SelfCheckingPigeon2 implements SelfChecking {
-    private final String label;
+public class SelfCheckingPigeon2 extends SelfCheckingBase {
+    static final FaultKind[] FAULT_KINDS = {
+            new FaultKind("Hardware fault detected"),
+            new FaultKind("Device booted while enabled"),
+            new FaultKind("Device booted while in motion"),
+            new FaultKind("Gyro fault detected"),
+            new FaultKind("Accelerometer fault detected"),
+            new FaultKind("Under voltage detected", true)
+    };
+
     private final Pigeon2 pigeon;
+    private final Pigeon2_Faults faults = new Pigeon2_Faults();
+    private final EnumFaultDescriptors<ErrorCode> errors;
+    private final String canBus;
 
     /**
-     * Creates a new SelfCheckingPigeon2.
+     * Creates a new SelfCheckingPigeon2 on the roboRIO CAN bus.
      *
      * @param label  The name of the device
      * @param pigeon The device
      */
     public SelfCheckingPigeon2(String label, Pigeon2 pigeon) {
-        this.label = label;
+        this(label, pigeon, RIO_BUS);
+    }
+
+    /**
+     * Creates a new SelfCheckingPigeon2.
+     *
+     * @param label  The name of the device
+     * @param pigeon The device
+     * @param canBus The CAN bus the device is on, {@link #RIO_BUS} or the name of a CANivore
+     */
+    public SelfCheckingPigeon2(String label, Pigeon2 pigeon, String canBus) {
+        super(label, FAULT_KINDS);
+        this.canBus = canBus;
         this.pigeon = pigeon;
+        this.errors = EnumFaultDescriptors.forPhoenix(label);
     }
 
     @Override
-    public List<SubsystemFault> checkForFaults() {
-        List<SubsystemFault> faults = new ArrayList<>();
+    public String getNetwork() {
+        return canBus;
+    }
 
-        Pigeon2_Faults f = new Pigeon2_Faults();
-        pigeon.getFaults(f);
+    @Override
+    protected long readFaultBits() {
+        pigeon.getFaults(faults);
 
-        if (f.HardwareFault) {
-            faults.add(new SubsystemFault(String.format("[%s]: Hardware fault detected", label)));
-        }
-        if (f.ResetDuringEn) {
-            faults.add(new SubsystemFault(String.format("[%s]: Device booted while enabled", label)));
-        }
-        if (f.BootIntoMotion) {
-            faults.add(new SubsystemFault(String.format("[%s]: Device booted while in motion", label)));
-        }
-        if (f.GyroFault) {
-            faults.add(new SubsystemFault(String.format("[%s]: Gyro fault detected", label)));
-        }
-        if (f.AccelFault) {
-            faults.add(new SubsystemFault(String.format("[%s]: Accelerometer fault detected", label)));
-        }
-        if (f.UnderVoltage) {
-            faults.add(new SubsystemFault(String.format("[%s]: Under voltage detected", label), true));
-        }
+        return bit(faults.HardwareFault, 0)
+                | bit(faults.ResetDuringEn, 1)
+                | bit(faults.BootIntoMotion, 2)
+                | bit(faults.GyroFault, 3)
+                | bit(faults.AccelFault, 4)
+                | bit(faults.UnderVoltage, 5);
+    }
+
+    @Override
+    public void checkForFaults(FaultSink sink) {
+        super.checkForFaults(sink);
 
         ErrorCode err = pigeon.getLastError();
         if (err != ErrorCode.OK) {
-            faults.add(
-                    new SubsystemFault(
-                            String.format("[%s]: Error Code (%s)", label, err.name()), err.value > 0));
+            sink.report(errors.get(err));
         }
-
-        return faults;
     }
 }
@@ -1,18 +1,23 @@
 package com.northeasternrobotics.advancedsubsystems.selfcheck;
 
-import com.ctre.phoenixpro.StatusCode;
 import com.ctre.phoenixpro.StatusSignalValue;
 import com.ctre.phoenixpro.hardware.Pigeon2;
-import com.northeasternrobotics.advancedsubsystems.SubsystemFault;
-
-import java.util.ArrayList;
-import java.util.List;
+import com.northeasternrobotics.advancedsubsystems.FaultKind;
 
 /**
  * Pigeon 2 Pro that automatically checks itself for faults.
  */
-public class SelfCheckingPigeon2Pro implements SelfChecking {
-    private final String label;
+public class SelfCheckingPigeon2Pro extends SelfCheckingPhoenixPro {
+    static final FaultKind[] FAULT_KINDS = {
+            new FaultKind("No communication with device"),
+            new FaultKind("Hardware fault detected"),
+            new FaultKind("Device booted while enabled"),
+            new FaultKind("Device booted while in motion"),
+            new FaultKind("Accelerometer boot checks failed"),
+            new FaultKind("Gyro boot checks failed"),
+            new FaultKind("Under voltage fault detected", true)
+    };
+
     private final StatusSignalValue<Integer> firmwareVersionSignal;
     private final StatusSignalValue<Boolean> hardwareFaultSignal;
     private final StatusSignalValue<Boolean> bootEnabledSignal;
@@ -28,7 +33,18 @@ public class SelfCheckingPigeon2Pro implements SelfChecking {
      * @param pigeon The device
      */
     public SelfCheckingPigeon2Pro(String label, Pigeon2 pigeon) {
-        this.label = label;
+        this(label, pigeon, null);
+    }
+
+    /**
+     * Creates a new SelfCheckingPigeon2Pro whose signals are refreshed by a shared batch.
+     *
+     * @param label  The name of the device
+     * @param pigeon The device
+     * @param batch  The batch that refreshes the signals, or null to refresh them when checking
+     */
+    public SelfCheckingPigeon2Pro(String label, Pigeon2 pigeon, StatusSignalBatch batch) {
+        super(label, batch, FAULT_KINDS);
 
         this.firmwareVersionSignal = pigeon.getVersion();
         this.hardwareFaultSignal = pigeon.getFault_Hardware();
@@ -37,35 +53,18 @@ public class SelfCheckingPigeon2Pro implements SelfChecking {
         this.accelFaultSignal = pigeon.getFault_BootupAccelerometer();
         this.gyroFaultSignal = pigeon.getFault_BootupGyroscope();
         this.undervoltageFaultSignal = pigeon.getFault_Undervoltage();
+        useSignals(pigeon.getNetwork(), firmwareVersionSignal, hardwareFaultSignal, bootEnabledSignal,
+                bootMotionSignal, accelFaultSignal, gyroFaultSignal, undervoltageFaultSignal);
     }
 
     @Override
-    public List<SubsystemFault> checkForFaults() {
-        List<SubsystemFault> faults = new ArrayList<>();
-
-        if (firmwareVersionSignal.refresh().getError() != StatusCode.OK) {
-            faults.add(new SubsystemFault(String.format("[%s]: No communication with device", label)));
-        }
-        if (hardwareFaultSignal.refresh().getValue()) {
-            faults.add(new SubsystemFault(String.format("[%s]: Hardware fault detected", label)));
-        }
-        if (bootEnabledSignal.refresh().getValue()) {
-            faults.add(new SubsystemFault(String.format("[%s]: Device booted while enabled", label)));
-        }
-        if (bootMotionSignal.refresh().getValue()) {
-            faults.add(new SubsystemFault(String.format("[%s]: Device booted while in motion", label)));
-        }
-        if (accelFaultSignal.refresh().getValue()) {
-            faults.add(
-                    new SubsystemFault(String.format("[%s]: Accelerometer boot checks failed", label)));
-        }
-        if (gyroFaultSignal.refresh().getValue()) {
-            faults.add(new SubsystemFault(String.format("[%s]: Gyro boot checks failed", label)));
-        }
-        if (undervoltageFaultSignal.refresh().getValue()) {
-            faults.add(new SubsystemFault(String.format("[%s]: Under voltage fault detected", label), true));
-        }
-
-        return faults;
+    protected long readFaultBits() {
+        return bit(hasError(firmwareVersionSignal), 0)
+                | bit(isActive(hardwareFaultSignal), 1)
+                | bit(isActive(bootEnabledSignal), 2)
+                | bit(isActive(bootMotionSignal), 3)
+                | bit(isActive(accelFaultSignal), 4)
+                | bit(isActive(gyroFaultSignal), 5)
+                | bit(isActive(undervoltageFaultSignal), 6);
     }
 }
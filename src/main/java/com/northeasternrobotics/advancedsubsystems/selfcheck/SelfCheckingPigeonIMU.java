@@ -3,47 +3,64 @@ package com.northeasternrobotics.advancedsubsystems.selfcheck;
 import com.ctre.phoenix.ErrorCode;
 import com.ctre.phoenix.sensors.PigeonIMU;
 import com.ctre.phoenix.sensors.PigeonIMU_Faults;
-import com.northeasternrobotics.advancedsubsystems.SubsystemFault;
-
-import java.util.ArrayList;
-import java.util.List;
+import com.northeasternrobotics.advancedsubsystems.FaultKind;
 
 /**
  * Pigeon IMU that automatically checks itself for faults.
  */
-public class SelfCheckingPigeonIMU implements SelfChecking {
-    private final String label;
+public class SelfCheckingPigeonIMU extends SelfCheckingBase {
+    static final FaultKind[] FAULT_KINDS = {
+            new FaultKind("Hardware fault detected")
+    };
+
     private final PigeonIMU pigeon;
+    private final PigeonIMU_Faults faults = new PigeonIMU_Faults();
+    private final EnumFaultDescriptors<ErrorCode> errors;
+    private final String canBus;
 
     /**
-     * Creates a new SelfCheckingPigeonIMU.
+     * Creates a new SelfCheckingPigeonIMU on the roboRIO CAN bus.
      *
      * @param label  The name of the device
      * @param pigeon The device
      */
     public SelfCheckingPigeonIMU(String label, PigeonIMU pigeon) {
-        this.label = label;
+        this(label, pigeon, RIO_BUS);
+    }
+
+    /**
+     * Creates a new SelfCheckingPigeonIMU.
+     *
+     * @param label  The name of the device
+     * @param pigeon The device
+     * @param canBus The CAN bus the device is on, {@link #RIO_BUS} or the name of a CANivore
+     */
+    public SelfCheckingPigeonIMU(String label, PigeonIMU pigeon, String canBus) {
+        super(label, FAULT_KINDS);
+        this.canBus = canBus;
         this.pigeon = pigeon;
+        this.errors = EnumFaultDescriptors.forPhoenix(label);
     }
 
     @Override
-    public List<SubsystemFault> checkForFaults() {
-        List<SubsystemFault> faults = new ArrayList<>();
+    public String getNetwork() {
+        return canBus;
+    }
 
-        PigeonIMU_Faults f = new PigeonIMU_Faults();
-        pigeon.getFaults(f);
+    @Override
+    protected long readFaultBits() {
+        pigeon.getFaults(faults);
 
-        if (f.hasAnyFault()) {
-            faults.add(new SubsystemFault(String.format("[%s]: Hardware fault detected", label)));
-        }
+        return bit(faults.hasAnyFault(), 0);
+    }
+
+    @Override
+    public void checkForFaults(FaultSink sink) {
+        super.checkForFaults(sink);
 
         ErrorCode err = pigeon.getLastError();
         if (err != ErrorCode.OK) {
-            faults.add(
-                    new SubsystemFault(
-                            String.format("[%s]: Error Code (%s)", label, err.name()), err.value > 0));
+            sink.report(errors.get(err));
         }
-
-        return faults;
     }
 }
@@ -1,16 +1,19 @@
 package com.northeasternrobotics.advancedsubsystems.selfcheck;
 
-import com.northeasternrobotics.advancedsubsystems.SubsystemFault;
+import com.northeasternrobotics.advancedsubsystems.FaultKind;
 import edu.wpi.first.wpilibj.PneumaticsControlModule;
 
-import java.util.ArrayList;
-import java.util.List;
-
 /**
  * Pneumatics Control Module that automatically checks itself for faults.
  */
-public class SelfCheckingPneumaticsControlModule implements SelfChecking {
-    private final String label;
+public class SelfCheckingPneumaticsControlModule extends SelfCheckingBase {
+    static final FaultKind[] FAULT_KINDS = {
+            new FaultKind("Compressor not connected"),
+            new FaultKind("Compressor shorted"),
+            new FaultKind("Compressor current too high"),
+            new FaultKind("Solenoid voltage fault")
+    };
+
     private final PneumaticsControlModule pneumaticsControlModule;
 
     /**
@@ -20,27 +23,20 @@ public class SelfCheckingPneumaticsControlModule implements SelfChecking {
      * @param pneumaticsControlModule The device
      */
     public SelfCheckingPneumaticsControlModule(String label, PneumaticsControlModule pneumaticsControlModule) {
-        this.label = label;
+        super(label, FAULT_KINDS);
         this.pneumaticsControlModule = pneumaticsControlModule;
     }
 
     @Override
-    public List<SubsystemFault> checkForFaults() {
-        List<SubsystemFault> faults = new ArrayList<>();
-
-        if (pneumaticsControlModule.getCompressorNotConnectedFault()) {
-            faults.add(new SubsystemFault(String.format("[%s]: Compressor not connected", label)));
-        }
-        if (pneumaticsControlModule.getCompressorShortedFault()) {
-            faults.add(new SubsystemFault(String.format("[%s]: Compressor shorted", label)));
-        }
-        if (pneumaticsControlModule.getCompressorCurrentTooHighFault()) {
-            faults.add(new SubsystemFault(String.format("[%s]: Compressor current too high", label)));
-        }
-        if (pneumaticsControlModule.getSolenoidVoltageFault()) {
-            faults.add(new SubsystemFault(String.format("[%s]: Solenoid voltage fault", label)));
-        }
+    public String getNetwork() {
+        return RIO_BUS;
+    }
 
-        return faults;
+    @Override
+    protected long readFaultBits() {
+        return bit(pneumaticsControlModule.getCompressorNotConnectedFault(), 0)
+                | bit(pneumaticsControlModule.getCompressorShortedFault(), 1)
+                | bit(pneumaticsControlModule.getCompressorCurrentTooHighFault(), 2)
+                | bit(pneumaticsControlModule.getSolenoidVoltageFault(), 3);
     }
 }
@@ -0,0 +1,89 @@
+package com.northeasternrobotics.advancedsubsystems.selfcheck;
+
+import com.northeasternrobotics.advancedsubsystems.FaultKind;
+import edu.wpi.first.wpilibj.PowerDistribution;
+
+import java.util.function.DoubleSupplier;
+
+/**
+ * A power distribution channel that powers a device, checked as part of the subsystem that owns
+ * the device. The current of the channel is sampled as telemetry, and faults are reported when
+ * its breaker is at risk of tripping or when the device is commanded but draws no current.
+ *
+ * <p>Breaker heating is approximated from the square of the current over the breaker rating, so
+ * short spikes are tolerated while a sustained overload is reported before the breaker trips.
+ */
+public class SelfCheckingPowerChannel extends SelfCheckingBase {
+    /**
+     * How much overload a breaker takes before it is reported at risk, in seconds at twice its
+     * rating.
+     */
+    public static final double BREAKER_HEAT_LIMIT = 1.0;
+    /**
+     * The lowest commanded output that a device should draw current at.
+     */
+    public static final double DEAD_CHANNEL_OUTPUT = 0.1;
+    /**
+     * The current below which a commanded device is considered dead, in amps.
+     */
+    public static final double DEAD_CHANNEL_CURRENT = 0.5;
+
+    static final FaultKind[] FAULT_KINDS = {
+            new FaultKind("Breaker at risk of tripping", true),
+            // The current lags the command when the device starts
+            new FaultKind("Commanded but drawing no current").withDebounce(5, 3, 1.0)
+    };
+
+    private final PowerDistributionSnapshot snapshot;
+    private final int channel;
+    private final double breakerRating;
+    private final DoubleSupplier commandedOutput;
+    private double current;
+    private double heat;
+    private double lastTimestamp = Double.NaN;
+
+    /**
+     * Creates a new SelfCheckingPowerChannel.
+     *
+     * @param label             The name of the device
+     * @param powerDistribution The module the device is powered from
+     * @param channel           The channel the device is powered from
+     * @param breakerRating     The rating of the channel's breaker, in amps
+     * @param commandedOutput   The output the device is commanded to, or null to not check for
+     *                          a dead channel
+     */
+    public SelfCheckingPowerChannel(String label, PowerDistribution powerDistribution, int channel,
+                                    double breakerRating, DoubleSupplier commandedOutput) {
+        super(label, FAULT_KINDS);
+        this.snapshot = PowerDistributionSnapshot.of(powerDistribution);
+        this.channel = channel;
+        this.breakerRating = breakerRating;
+        this.commandedOutput = commandedOutput;
+        snapshot.addChannel(channel);
+        addTelemetry(TelemetrySignal.upperLimit(label, "Current", "A", () -> current, breakerRating,
+                TelemetrySignal.PREDICTION_HORIZON));
+    }
+
+    @Override
+    public String getNetwork() {
+        return RIO_BUS;
+    }
+
+    @Override
+    protected long readFaultBits() {
+        double timestamp = getCheckTimestamp();
+        current = snapshot.getCurrent(channel, timestamp);
+
+        if (!Double.isNaN(lastTimestamp)) {
+            // Twice the rating heats the breaker by one per second, the rating or less cools it
+            double load = current / breakerRating;
+            heat = Math.max(0, heat + (load * load - 1) / 3 * (timestamp - lastTimestamp));
+        }
+        lastTimestamp = timestamp;
+
+        boolean dead = commandedOutput != null
+                && Math.abs(commandedOutput.getAsDouble()) >= DEAD_CHANNEL_OUTPUT
+                && Math.abs(current) < DEAD_CHANNEL_CURRENT;
+        return bit(heat >= BREAKER_HEAT_LIMIT, 0) | bit(dead, 1);
+    }
+}
@@ -1,16 +1,21 @@
 package com.northeasternrobotics.advancedsubsystems.selfcheck;
 
-import com.northeasternrobotics.advancedsubsystems.SubsystemFault;
+import com.northeasternrobotics.advancedsubsystems.FaultKind;
+import edu.wpi.first.hal.PowerDistributionFaults;
 import edu.wpi.first.wpilibj.PowerDistribution;
 
-import java.util.ArrayList;
-import java.util.List;
-
 /**
- * Power Distribution system that automatically checks itself for faults.
+ * Power Distribution system that automatically checks itself for faults. The faults are read
+ * once per check, and the devices powered by each channel can be monitored with
+ * {@link SelfCheckingPowerChannel}.
  */
-public class SelfCheckingPowerDistribution implements SelfChecking {
-    private final String label;
+public class SelfCheckingPowerDistribution extends SelfCheckingBase {
+    static final FaultKind[] FAULT_KINDS = {
+            new FaultKind("Hardware fault detected"),
+            new FaultKind("Brownout detected", true),
+            new FaultKind("CAN warning detected", true)
+    };
+
     private final PowerDistribution powerDistribution;
 
     /**
@@ -20,24 +25,20 @@ public class SelfCheckingPowerDistribution implements SelfChecking {
      * @param powerDistribution The device
      */
     public SelfCheckingPowerDistribution(String label, PowerDistribution powerDistribution) {
-        this.label = label;
+        super(label, FAULT_KINDS);
         this.powerDistribution = powerDistribution;
     }
 
     @Override
-    public List<SubsystemFault> checkForFaults() {
-        List<SubsystemFault> faults = new ArrayList<>();
-
-        if (powerDistribution.getFaults().HardwareFault) {
-            faults.add(new SubsystemFault(String.format("[%s]: Hardware fault detected", label)));
-        }
-        if (powerDistribution.getFaults().Brownout) {
-            faults.add(new SubsystemFault(String.format("[%s]: Brownout detected", label), true));
-        }
-        if (powerDistribution.getFaults().CanWarning) {
-            faults.add(new SubsystemFault(String.format("[%s]: CAN warning detected", label), true));
-        }
+    public String getNetwork() {
+        return RIO_BUS;
+    }
 
-        return faults;
+    @Override
+    protected long readFaultBits() {
+        PowerDistributionFaults faults = powerDistribution.getFaults();
+        return bit(faults.HardwareFault, 0)
+                | bit(faults.Brownout, 1)
+                | bit(faults.CanWarning, 2);
     }
 }
@@ -0,0 +1,203 @@
+package com.northeasternrobotics.advancedsubsystems.selfcheck;
+
+import com.northeasternrobotics.advancedsubsystems.FaultKind;
+import edu.wpi.first.hal.SimBoolean;
+import edu.wpi.first.hal.SimDevice;
+
+import java.util.function.LongSupplier;
+
+/**
+ * Simulated device that reports the same faults as a real one, so the fault pipeline can be
+ * exercised in desktop simulation. Unlike real hardware it is checked even when the robot is
+ * not real.
+ *
+ * <p>Each fault kind is exposed as a boolean on a HAL sim device named "SelfChecking:label",
+ * which can be toggled from the simulation GUI. Faults can also be set from code with
+ * {@link #setFault(int, boolean)}, or scripted with {@link #setFaultSource(LongSupplier)}.
+ */
+public class SelfCheckingSimDevice extends SelfCheckingBase {
+    private final SimDevice simDevice;
+    private final SimBoolean[] simFaults;
+    private volatile long injectedBits;
+    private volatile LongSupplier faultSource;
+
+    /**
+     * Creates a new SelfCheckingSimDevice.
+     *
+     * @param label The name of the device
+     * @param kinds The kinds of fault the device can report, indexed by bit, null for bits
+     *              that are not faults
+     */
+    public SelfCheckingSimDevice(String label, FaultKind... kinds) {
+        super(label, kinds);
+        // Null outside of simulation or when another device already uses the name
+        this.simDevice = SimDevice.create("SelfChecking:" + label);
+        this.simFaults = new SimBoolean[kinds.length];
+        if (simDevice != null) {
+            for (int i = 0; i < kinds.length; i++) {
+                if (kinds[i] == null) {
+                    continue;
+                }
+                simFaults[i] = simDevice.createBoolean(kinds[i].description, SimDevice.Direction.kBidir, false);
+            }
+        }
+    }
+
+    /**
+     * @param label The name of the device
+     * @return A simulated CANCoder
+     */
+    public static SelfCheckingSimDevice canCoder(String label) {
+        return new SelfCheckingSimDevice(label, SelfCheckingCANCoder.FAULT_KINDS);
+    }
+
+    /**
+     * @param label The name of the device
+     * @return A simulated CANcoder Pro
+     */
+    public static SelfCheckingSimDevice canCoderPro(String label) {
+        return new SelfCheckingSimDevice(label, SelfCheckingCANCoderPro.FAULT_KINDS);
+    }
+
+    /**
+     * @param label The name of the device
+     * @return A simulated NavX
+     */
+    public static SelfCheckingSimDevice navX(String label) {
+        return new SelfCheckingSimDevice(label, SelfCheckingNavX.FAULT_KINDS);
+    }
+
+    /**
+     * @param label The name of the device
+     * @return A simulated PWM motor controller
+     */
+    public static SelfCheckingSimDevice pwmMotor(String label) {
+        return new SelfCheckingSimDevice(label, SelfCheckingPWMMotor.FAULT_KINDS);
+    }
+
+    /**
+     * @param label The name of the device
+     * @return A simulated Phoenix motor controller
+     */
+    public static SelfCheckingSimDevice phoenixMotor(String label) {
+        return new SelfCheckingSimDevice(label, SelfCheckingPhoenixMotor.FAULT_KINDS);
+    }
+
+    /**
+     * @param label The name of the device
+     * @return A simulated Pigeon 2
+     */
+    public static SelfCheckingSimDevice pigeon2(String label) {
+        return new SelfCheckingSimDevice(label, SelfCheckingPigeon2.FAULT_KINDS);
+    }
+
+    /**
+     * @param label The name of the device
+     * @return A simulated Pigeon 2 Pro
+     */
+    public static SelfCheckingSimDevice pigeon2Pro(String label) {
+        return new SelfCheckingSimDevice(label, SelfCheckingPigeon2Pro.FAULT_KINDS);
+    }
+
+    /**
+     * @param label The name of the device
+     * @return A simulated Pigeon IMU
+     */
+    public static SelfCheckingSimDevice pigeonIMU(String label) {
+        return new SelfCheckingSimDevice(label, SelfCheckingPigeonIMU.FAULT_KINDS);
+    }
+
+    /**
+     * @param label The name of the device
+     * @return A simulated Pneumatics Control Module
+     */
+    public static SelfCheckingSimDevice pneumaticsControlModule(String label) {
+        return new SelfCheckingSimDevice(label, SelfCheckingPneumaticsControlModule.FAULT_KINDS);
+    }
+
+    /**
+     * @param label The name of the device
+     * @return A simulated Power Distribution
+     */
+    public static SelfCheckingSimDevice powerDistribution(String label) {
+        return new SelfCheckingSimDevice(label, SelfCheckingPowerDistribution.FAULT_KINDS);
+    }
+
+    /**
+     * @param label The name of the device
+     * @return A simulated power distribution channel
+     */
+    public static SelfCheckingSimDevice powerChannel(String label) {
+        return new SelfCheckingSimDevice(label, SelfCheckingPowerChannel.FAULT_KINDS);
+    }
+
+    /**
+     * @param label The name of the device
+     * @return A simulated Spark Max
+     */
+    public static SelfCheckingSimDevice sparkMax(String label) {
+        return new SelfCheckingSimDevice(label, SelfCheckingSparkMax.FAULT_KINDS);
+    }
+
+    /**
+     * @param label The name of the device
+     * @return A simulated Talon FX Pro
+     */
+    public static SelfCheckingSimDevice talonFXPro(String label) {
+        return new SelfCheckingSimDevice(label, SelfCheckingTalonFXPro.FAULT_KINDS);
+    }
+
+    /**
+     * @param index  The index of the fault kind
+     * @param active Whether the fault is active
+     */
+    public void setFault(int index, boolean active) {
+        if (simFaults[index] != null) {
+            simFaults[index].set(active);
+        } else {
+            synchronized (this) {
+                injectedBits = active ? injectedBits | (1L << index) : injectedBits & ~(1L << index);
+            }
+        }
+    }
+
+    /**
+     * @param bits A word with bit i set when the i-th fault kind is active
+     */
+    public void setFaultBits(long bits) {
+        for (int i = 0; i < simFaults.length; i++) {
+            setFault(i, (bits & (1L << i)) != 0);
+        }
+    }
+
+    /**
+     * Clears every fault set with {@link #setFault(int, boolean)} and removes the fault source.
+     */
+    public void clearFaults() {
+        setFaultBits(0);
+        faultSource = null;
+    }
+
+    /**
+     * @param faultSource Called on every check for additional active faults, as a word with bit
+     *                    i set when the i-th fault kind is active, or null for none
+     */
+    public void setFaultSource(LongSupplier faultSource) {
+        this.faultSource = faultSource;
+    }
+
+    @Override
+    protected long readFaultBits() {
+        long bits = injectedBits;
+        for (int i = 0; i < simFaults.length; i++) {
+            if (simFaults[i] != null) {
+                bits |= bit(simFaults[i].get(), i);
+            }
+        }
+        LongSupplier source = faultSource;
+        if (source != null) {
+            bits |= source.getAsLong();
+        }
+        return bits;
+    }
+}
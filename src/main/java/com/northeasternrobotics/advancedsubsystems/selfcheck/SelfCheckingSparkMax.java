@@ -1,39 +1,76 @@
 package com.northeasternrobotics.advancedsubsystems.selfcheck;
 
-import com.northeasternrobotics.advancedsubsystems.SubsystemFault;
+import com.northeasternrobotics.advancedsubsystems.FaultKind;
 import com.revrobotics.CANSparkMax;
 import com.revrobotics.REVLibError;
 
-import java.util.ArrayList;
-import java.util.List;
-
 /**
  * Spark Max that automatically checks itself for faults.
  */
-public class SelfCheckingSparkMax implements SelfChecking {
-    private final String label;
+public class SelfCheckingSparkMax extends SelfCheckingBase {
+    // Indexed by CANSparkMax.FaultID, the limit bits after these are not faults
+    static final FaultKind[] FAULT_KINDS = {
+            new FaultKind("Brownout", true),
+            new FaultKind("Over current", true),
+            new FaultKind("Watchdog reset"),
+            new FaultKind("Motor fault"),
+            new FaultKind("Sensor fault"),
+            new FaultKind("Motor stalled", true),
+            new FaultKind("EEPROM checksum error"),
+            new FaultKind("CAN transmit error", true),
+            new FaultKind("CAN receive error", true),
+            new FaultKind("Device reset", true),
+            new FaultKind("Gate driver fault"),
+            new FaultKind("Other fault")
+    };
+
     private final CANSparkMax spark;
+    private final EnumFaultDescriptors<REVLibError> errors;
 
     /**
-     * Creates a new SelfCheckingSparkMax.
+     * Creates a new SelfCheckingSparkMax that warns before the motor reaches 80C or its supply
+     * drops below 8V.
      *
      * @param label The name of the device
      * @param spark The device
      */
     public SelfCheckingSparkMax(String label, CANSparkMax spark) {
-        this.label = label;
+        this(label, spark, DEFAULT_TEMPERATURE_LIMIT, DEFAULT_SUPPLY_VOLTAGE_LIMIT);
+    }
+
+    /**
+     * Creates a new SelfCheckingSparkMax.
+     *
+     * @param label              The name of the device
+     * @param spark              The device
+     * @param temperatureLimit   The highest temperature the motor should reach, in degrees Celsius
+     * @param supplyVoltageLimit The lowest supply voltage the motor should see, in volts
+     */
+    public SelfCheckingSparkMax(String label, CANSparkMax spark, double temperatureLimit, double supplyVoltageLimit) {
+        super(label, FAULT_KINDS);
         this.spark = spark;
+        this.errors = EnumFaultDescriptors.forRev(label);
+        addMotorTelemetry(spark::getMotorTemperature, spark::getBusVoltage, spark::getOutputCurrent,
+                temperatureLimit, supplyVoltageLimit);
+    }
+
+    @Override
+    public String getNetwork() {
+        return RIO_BUS;
     }
 
     @Override
-    public List<SubsystemFault> checkForFaults() {
-        ArrayList<SubsystemFault> faults = new ArrayList<>();
+    protected long readFaultBits() {
+        return spark.getFaults() & 0xFFFF;
+    }
+
+    @Override
+    public void checkForFaults(FaultSink sink) {
+        super.checkForFaults(sink);
 
         REVLibError err = spark.getLastError();
         if (err != REVLibError.kOk) {
-            faults.add(new SubsystemFault(String.format("[%s]: Error: %s", label, err.name())));
+            sink.report(errors.get(err));
         }
-
-        return faults;
     }
 }
@@ -1,23 +1,29 @@
 package com.northeasternrobotics.advancedsubsystems.selfcheck;
 
-import com.ctre.phoenixpro.StatusCode;
 import com.ctre.phoenixpro.StatusSignalValue;
 import com.ctre.phoenixpro.hardware.TalonFX;
-import com.northeasternrobotics.advancedsubsystems.SubsystemFault;
-
-import java.util.ArrayList;
-import java.util.List;
+import com.northeasternrobotics.advancedsubsystems.FaultKind;
 
 /**
  * Talon FX Pro that automatically checks itself for faults.
  */
-public class SelfCheckingTalonFXPro implements SelfChecking {
-    private final String label;
+public class SelfCheckingTalonFXPro extends SelfCheckingPhoenixPro {
+    static final FaultKind[] FAULT_KINDS = {
+            new FaultKind("No communication with device"),
+            new FaultKind("Hardware fault detected"),
+            new FaultKind("Device booted while enabled"),
+            new FaultKind("Device temperature too high", true),
+            new FaultKind("Processor temperature too high", true)
+    };
+
     private final StatusSignalValue<Integer> firmwareVersionSignal;
     private final StatusSignalValue<Boolean> hardwareFaultSignal;
     private final StatusSignalValue<Boolean> bootEnabledSignal;
     private final StatusSignalValue<Boolean> deviceTempSignal;
     private final StatusSignalValue<Boolean> procTempSignal;
+    private final StatusSignalValue<Double> temperatureSignal;
+    private final StatusSignalValue<Double> supplyVoltageSignal;
+    private final StatusSignalValue<Double> statorCurrentSignal;
 
     /**
      * Creates a new SelfCheckingTalonFXPro.
@@ -26,37 +32,55 @@ public class SelfCheckingTalonFXPro implements SelfChecking {
      * @param talon The device
      */
     public SelfCheckingTalonFXPro(String label, TalonFX talon) {
-        this.label = label;
+        this(label, talon, null);
+    }
+
+    /**
+     * Creates a new SelfCheckingTalonFXPro whose signals are refreshed by a shared batch, that
+     * warns before the motor reaches 80C or its supply drops below 8V.
+     *
+     * @param label The name of the device
+     * @param talon The device
+     * @param batch The batch that refreshes the signals, or null to refresh them when checking
+     */
+    public SelfCheckingTalonFXPro(String label, TalonFX talon, StatusSignalBatch batch) {
+        this(label, talon, batch, DEFAULT_TEMPERATURE_LIMIT, DEFAULT_SUPPLY_VOLTAGE_LIMIT);
+    }
+
+    /**
+     * Creates a new SelfCheckingTalonFXPro whose signals are refreshed by a shared batch.
+     *
+     * @param label              The name of the device
+     * @param talon              The device
+     * @param batch              The batch that refreshes the signals, or null to refresh them
+     *                           when checking
+     * @param temperatureLimit   The highest temperature the motor should reach, in degrees Celsius
+     * @param supplyVoltageLimit The lowest supply voltage the motor should see, in volts
+     */
+    public SelfCheckingTalonFXPro(String label, TalonFX talon, StatusSignalBatch batch, double temperatureLimit,
+                                  double supplyVoltageLimit) {
+        super(label, batch, FAULT_KINDS);
 
         firmwareVersionSignal = talon.getVersion();
         hardwareFaultSignal = talon.getFault_Hardware();
         bootEnabledSignal = talon.getFault_BootDuringEnable();
         deviceTempSignal = talon.getFault_DeviceTemp();
         procTempSignal = talon.getFault_ProcTemp();
+        temperatureSignal = talon.getDeviceTemp();
+        supplyVoltageSignal = talon.getSupplyVoltage();
+        statorCurrentSignal = talon.getStatorCurrent();
+        useSignals(talon.getNetwork(), firmwareVersionSignal, hardwareFaultSignal, bootEnabledSignal,
+                deviceTempSignal, procTempSignal, temperatureSignal, supplyVoltageSignal, statorCurrentSignal);
+        addMotorTelemetry(() -> valueOf(temperatureSignal), () -> valueOf(supplyVoltageSignal),
+                () -> valueOf(statorCurrentSignal), temperatureLimit, supplyVoltageLimit);
     }
 
     @Override
-    public List<SubsystemFault> checkForFaults() {
-        List<SubsystemFault> faults = new ArrayList<>();
-
-        if (firmwareVersionSignal.refresh().getError() != StatusCode.OK) {
-            faults.add(new SubsystemFault(String.format("[%s]: No communication with device", label)));
-        }
-        if (hardwareFaultSignal.refresh().getValue()) {
-            faults.add(new SubsystemFault(String.format("[%s]: Hardware fault detected", label)));
-        }
-        if (bootEnabledSignal.refresh().getValue()) {
-            faults.add(new SubsystemFault(String.format("[%s]: Device booted while enabled", label)));
-        }
-        if (deviceTempSignal.refresh().getValue()) {
-            faults.add(
-                    new SubsystemFault(String.format("[%s]: Device temperature too high", label), true));
-        }
-        if (procTempSignal.refresh().getValue()) {
-            faults.add(
-                    new SubsystemFault(String.format("[%s]: Processor temperature too high", label), true));
-        }
-
-        return faults;
+    protected long readFaultBits() {
+        return bit(hasError(firmwareVersionSignal), 0)
+                | bit(isActive(hardwareFaultSignal), 1)
+                | bit(isActive(bootEnabledSignal), 2)
+                | bit(isActive(deviceTempSignal), 3)
+                | bit(isActive(procTempSignal), 4);
     }
 }
@@ -0,0 +1,55 @@
+package com.northeasternrobotics.advancedsubsystems.selfcheck;
+
+import com.ctre.phoenixpro.BaseStatusSignalValue;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Collects the status signals of Phoenix Pro devices so they can be refreshed together with one
+ * call per CAN bus, instead of one call per signal.
+ */
+public class StatusSignalBatch {
+    // Signals grouped by CAN bus, Phoenix Pro only refreshes signals from one bus at a time
+    private final Map<String, BaseStatusSignalValue[]> signals = new LinkedHashMap<>();
+    private BaseStatusSignalValue[][] buses = new BaseStatusSignalValue[0][];
+    private double lastRefresh = Double.NEGATIVE_INFINITY;
+
+    /**
+     * Adds signals to the batch.
+     *
+     * @param network The CAN bus the signals are on
+     * @param added   The signals to add
+     */
+    public synchronized void add(String network, BaseStatusSignalValue... added) {
+        BaseStatusSignalValue[] existing = signals.getOrDefault(network, new BaseStatusSignalValue[0]);
+        BaseStatusSignalValue[] combined = Arrays.copyOf(existing, existing.length + added.length);
+        System.arraycopy(added, 0, combined, existing.length, added.length);
+        signals.put(network, combined);
+        buses = signals.values().toArray(new BaseStatusSignalValue[0][]);
+    }
+
+    /**
+     * Refreshes every signal in the batch without blocking.
+     */
+    public synchronized void refresh() {
+        for (BaseStatusSignalValue[] bus : buses) {
+            BaseStatusSignalValue.waitForAll(0, bus);
+        }
+    }
+
+    /**
+     * Refreshes every signal in the batch unless it was already refreshed recently, so subsystems
+     * checking in the same cycle share one refresh.
+     *
+     * @param timestamp The current time
+     * @param maxAge    How old the last refresh can be before refreshing again, in seconds
+     */
+    public synchronized void refresh(double timestamp, double maxAge) {
+        if (timestamp - lastRefresh >= maxAge) {
+            lastRefresh = timestamp;
+            refresh();
+        }
+    }
+}
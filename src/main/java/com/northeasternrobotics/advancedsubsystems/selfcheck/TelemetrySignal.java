@@ -0,0 +1,145 @@
+package com.northeasternrobotics.advancedsubsystems.selfcheck;
+
+import com.northeasternrobotics.advancedsubsystems.FaultDescriptor;
+import com.northeasternrobotics.advancedsubsystems.FaultKind;
+
+import java.util.function.DoubleSupplier;
+
+/**
+ * A continuous signal of a device, such as its temperature, sampled every time the device is
+ * checked. If the signal has a limit, a warning is reported once its trend has been predicted to
+ * reach the limit within the prediction horizon for {@link #MIN_PREDICTED_TIME}, before the
+ * device starts reporting a fault. The warning is debounced like vendor errors, so a signal that
+ * hovers near its limit doesn't raise and clear it over and over.
+ */
+public final class TelemetrySignal {
+    /**
+     * The number of samples kept for each signal.
+     */
+    public static final int WINDOW = 32;
+    /**
+     * How much each new sample moves the exponentially weighted mean.
+     */
+    public static final double EWMA_GAIN = 0.2;
+    /**
+     * How far ahead a signal is predicted to reach its limit before a warning is reported, in
+     * seconds.
+     */
+    public static final double PREDICTION_HORIZON = 10.0;
+    /**
+     * How long a signal must keep being predicted to reach its limit before the warning is
+     * reported, in seconds. Shorter excursions, such as the supply voltage sagging while motors
+     * accelerate, are ignored.
+     */
+    public static final double MIN_PREDICTED_TIME = 1.0;
+    // Trends over fewer samples are too noisy to predict from
+    private static final int MIN_PREDICTION_SAMPLES = WINDOW / 4;
+
+    private final String name;
+    private final DoubleSupplier source;
+    private final double limit;
+    private final boolean above;
+    private final double horizon;
+    private final RollingStats stats = new RollingStats(WINDOW, EWMA_GAIN);
+    private final FaultDescriptor predictedFault;
+    // When the signal started being predicted to reach its limit, NaN while it isn't
+    private double predictedSince = Double.NaN;
+
+    private TelemetrySignal(String label, String name, String unit, DoubleSupplier source, double limit,
+                            boolean above, double horizon) {
+        this.name = name;
+        this.source = source;
+        this.limit = limit;
+        this.above = above;
+        this.horizon = horizon;
+        this.predictedFault = Double.isNaN(limit) ? null : new FaultDescriptor(label, new FaultKind(
+                String.format("%s predicted to %s %.1f%s within %.0fs", name, above ? "exceed" : "drop below",
+                        limit, unit, horizon), true).withDebounce(EnumFaultDescriptors.ERROR_RAISE_COUNT,
+                EnumFaultDescriptors.ERROR_CLEAR_COUNT, EnumFaultDescriptors.ERROR_HOLD_TIME));
+    }
+
+    /**
+     * Creates a signal that warns when it is predicted to rise above a limit.
+     *
+     * @param label   The name of the device
+     * @param name    The name of the signal
+     * @param unit    The unit of the signal, shown after the limit
+     * @param source  Reads the signal
+     * @param limit   The highest value the signal should reach
+     * @param horizon How far ahead to predict, in seconds
+     * @return The signal
+     */
+    public static TelemetrySignal upperLimit(String label, String name, String unit, DoubleSupplier source,
+                                             double limit, double horizon) {
+        return new TelemetrySignal(label, name, unit, source, limit, true, horizon);
+    }
+
+    /**
+     * Creates a signal that warns when it is predicted to fall below a limit.
+     *
+     * @param label   The name of the device
+     * @param name    The name of the signal
+     * @param unit    The unit of the signal, shown after the limit
+     * @param source  Reads the signal
+     * @param limit   The lowest value the signal should reach
+     * @param horizon How far ahead to predict, in seconds
+     * @return The signal
+     */
+    public static TelemetrySignal lowerLimit(String label, String name, String unit, DoubleSupplier source,
+                                             double limit, double horizon) {
+        return new TelemetrySignal(label, name, unit, source, limit, false, horizon);
+    }
+
+    /**
+     * Creates a signal that is only sampled for its statistics.
+     *
+     * @param name   The name of the signal
+     * @param source Reads the signal
+     * @return The signal
+     */
+    public static TelemetrySignal unlimited(String name, DoubleSupplier source) {
+        return new TelemetrySignal(null, name, "", source, Double.NaN, true, 0);
+    }
+
+    /**
+     * Samples the signal and reports a warning if it has been predicted to reach its limit for
+     * long enough.
+     *
+     * @param timestamp The time of the sample, in seconds
+     * @param sink      The sink to report the warning to
+     */
+    void sample(double timestamp, FaultSink sink) {
+        double value = source.getAsDouble();
+        if (Double.isNaN(value)) {
+            return;
+        }
+        stats.add(timestamp, value);
+        if (predictedFault == null) {
+            return;
+        }
+        if (stats.getCount() < MIN_PREDICTION_SAMPLES || stats.getTimeToReach(limit, above) > horizon) {
+            predictedSince = Double.NaN;
+            return;
+        }
+        if (Double.isNaN(predictedSince)) {
+            predictedSince = timestamp;
+        }
+        if (timestamp - predictedSince >= MIN_PREDICTED_TIME) {
+            sink.report(predictedFault);
+        }
+    }
+
+    /**
+     * @return The name of the signal
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * @return The statistics of the recent samples
+     */
+    public RollingStats getStats() {
+        return stats;
+    }
+}
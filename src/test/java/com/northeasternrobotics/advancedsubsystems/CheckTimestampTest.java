@@ -0,0 +1,50 @@
+package com.northeasternrobotics.advancedsubsystems;
+
+import com.northeasternrobotics.advancedsubsystems.selfcheck.RollingStats;
+import com.northeasternrobotics.advancedsubsystems.selfcheck.SelfCheckingBase;
+import com.northeasternrobotics.advancedsubsystems.selfcheck.TelemetrySignal;
+import edu.wpi.first.hal.HAL;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CheckTimestampTest {
+    private static final double CYCLE_PERIOD = 0.5;
+
+    @BeforeAll
+    static void initialize() {
+        assertTrue(HAL.initialize(500, 0));
+    }
+
+    @Test
+    void telemetryIsSampledAtTheTimeOfTheCheck() {
+        AdvancedSubsystem subsystem = new TestSubsystem("CheckTimestampTest");
+        RisingDevice device = new RisingDevice();
+        MonitoredDevice monitored = new MonitoredDevice(subsystem, device, CYCLE_PERIOD);
+
+        for (int i = 0; i < 10; i++) {
+            device.value = i;
+            subsystem.checkDevice(monitored, 100 + i * CYCLE_PERIOD);
+        }
+
+        RollingStats stats = device.getTelemetry().get(0).getStats();
+        assertEquals(10, stats.getCount());
+        // Rises by 1 every check, which is every half second of the checks' clock
+        assertEquals(2.0, stats.getSlope(), 1e-9);
+    }
+
+    private static final class RisingDevice extends SelfCheckingBase {
+        double value;
+
+        RisingDevice() {
+            super("Rising");
+            addTelemetry(TelemetrySignal.unlimited("Value", () -> value));
+        }
+
+        @Override
+        protected long readFaultBits() {
+            return 0;
+        }
+    }
+}
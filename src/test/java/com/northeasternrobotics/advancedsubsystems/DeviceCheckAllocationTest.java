@@ -0,0 +1,76 @@
+package com.northeasternrobotics.advancedsubsystems;
+
+import com.northeasternrobotics.advancedsubsystems.selfcheck.SelfCheckingSimDevice;
+import edu.wpi.first.hal.HAL;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.ManagementFactory;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Checks that a warmed up check cycle allocates nothing, using the JVM's count of the bytes
+ * allocated by the current thread. This is what the DeviceCheckBenchmark gc profiler reports,
+ * but fails the build instead of only showing up in the results.
+ */
+class DeviceCheckAllocationTest {
+    private static final int WARMUP_CYCLES = 20_000;
+    private static final int MEASURED_CYCLES = 1_000;
+
+    private static com.sun.management.ThreadMXBean threads;
+
+    @BeforeAll
+    static void initialize() {
+        assertTrue(HAL.initialize(500, 0));
+        threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        assertTrue(threads.isThreadAllocatedMemorySupported());
+        threads.setThreadAllocatedMemoryEnabled(true);
+    }
+
+    @Test
+    void healthyCheckAllocatesNothing() {
+        assertEquals(0, allocatedByCheckCycles(0L, false));
+    }
+
+    @Test
+    void faultedCheckAllocatesNothing() {
+        assertEquals(0, allocatedByCheckCycles(-1L, false));
+    }
+
+    @Test
+    void flappingCheckAllocatesNothing() {
+        assertEquals(0, allocatedByCheckCycles(-1L, true));
+    }
+
+    // Bytes allocated by the measured cycles, beyond what reading the counter allocates
+    private static long allocatedByCheckCycles(long faultBits, boolean flapping) {
+        AdvancedSubsystem subsystem = new TestSubsystem("DeviceCheckAllocationTest");
+        SelfCheckingSimDevice device = SelfCheckingSimDevice.talonFXPro("Allocation/" + faultBits + "/" + flapping);
+        long[] checks = new long[1];
+        device.setFaultSource(() -> flapping && (checks[0] & 1) != 0 ? 0L : faultBits);
+        MonitoredDevice monitored = new MonitoredDevice(subsystem, device, HealthScheduler.CHECK_PERIOD);
+
+        double timestamp = 0;
+        for (int i = 0; i < WARMUP_CYCLES; i++) {
+            checks[0]++;
+            cycle(subsystem, monitored, timestamp += HealthScheduler.LOOP_PERIOD);
+        }
+
+        long threadId = Thread.currentThread().getId();
+        long counterStart = threads.getThreadAllocatedBytes(threadId);
+        long counterOverhead = threads.getThreadAllocatedBytes(threadId) - counterStart;
+        long start = threads.getThreadAllocatedBytes(threadId);
+        for (int i = 0; i < MEASURED_CYCLES; i++) {
+            checks[0]++;
+            cycle(subsystem, monitored, timestamp += HealthScheduler.LOOP_PERIOD);
+        }
+        return threads.getThreadAllocatedBytes(threadId) - start - counterOverhead;
+    }
+
+    private static void cycle(AdvancedSubsystem subsystem, MonitoredDevice monitored, double timestamp) {
+        subsystem.beginChecks(timestamp);
+        subsystem.checkDevice(monitored, timestamp);
+        subsystem.endChecks();
+    }
+}
@@ -0,0 +1,175 @@
+package com.northeasternrobotics.advancedsubsystems;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DeviceFaultStateTest {
+    private static final String DEVICE = "Device";
+
+    // Not logged, since no log is enabled
+    private static DeviceFaultState state() {
+        return new DeviceFaultState(DEVICE, new FaultLog("DeviceFaultStateTest").createDeviceEntry(DEVICE));
+    }
+
+    private static FaultDescriptor fault(String description) {
+        return new FaultDescriptor(DEVICE, new FaultKind(description, false));
+    }
+
+    private static void check(DeviceFaultState state, double timestamp, FaultDescriptor... reported) {
+        state.begin();
+        for (FaultDescriptor descriptor : reported) {
+            state.report(descriptor);
+        }
+        state.end(timestamp);
+    }
+
+    @Test
+    void undebouncedFaultFollowsEveryCheck() {
+        DeviceFaultState state = state();
+        FaultDescriptor fault = fault("Fault");
+
+        check(state, 0, fault);
+        assertEquals(1L, state.getActive());
+        assertSame(fault, state.getFault(0));
+        check(state, 1);
+        assertEquals(0L, state.getActive());
+    }
+
+    @Test
+    void faultIsRaisedAfterRaiseCountChecksInARow() {
+        DeviceFaultState state = state();
+        FaultDescriptor fault = new FaultDescriptor(DEVICE, new FaultKind("Noisy", false).withDebounce(3, 2, 0));
+
+        check(state, 0, fault);
+        check(state, 1, fault);
+        // A check without the fault restarts the streak
+        check(state, 2);
+        check(state, 3, fault);
+        check(state, 4, fault);
+        assertEquals(0L, state.getActive());
+        check(state, 5, fault);
+        assertEquals(1L, state.getActive());
+
+        check(state, 6);
+        assertEquals(1L, state.getActive());
+        // A check with the fault restarts the clear streak
+        check(state, 7, fault);
+        check(state, 8);
+        assertEquals(1L, state.getActive());
+        check(state, 9);
+        assertEquals(0L, state.getActive());
+    }
+
+    @Test
+    void faultStaysActiveForItsHoldTime() {
+        DeviceFaultState state = state();
+        FaultDescriptor fault = new FaultDescriptor(DEVICE, new FaultKind("Held", false).withDebounce(1, 1, 1.0));
+
+        check(state, 10.0, fault);
+        check(state, 10.5);
+        assertEquals(1L, state.getActive());
+        check(state, 11.0);
+        assertEquals(0L, state.getActive());
+    }
+
+    @Test
+    void wordBitsAreMappedInTheOrderTheyFirstRise() {
+        DeviceFaultState state = state();
+        FaultDescriptor[] descriptors = {fault("Bit 0"), null, fault("Bit 2"), fault("Bit 3")};
+
+        state.begin();
+        state.reportWord(0b1000, descriptors);
+        state.end(0);
+        assertEquals(0b1L, state.getActive());
+        assertSame(descriptors[3], state.getFault(0));
+
+        state.begin();
+        state.reportWord(0b1101, descriptors);
+        state.end(1);
+        assertEquals(0b111L, state.getActive());
+        assertSame(descriptors[0], state.getFault(1));
+        assertSame(descriptors[2], state.getFault(2));
+
+        // An unchanged word reuses the mapping, a shorter one clears the bits that fell
+        state.begin();
+        state.reportWord(0b1101, descriptors);
+        state.end(2);
+        assertEquals(0b111L, state.getActive());
+        state.begin();
+        state.reportWord(0b0100, descriptors);
+        state.end(3);
+        assertEquals(0b100L, state.getActive());
+    }
+
+    @Test
+    void wordBitsWithoutADescriptorAreIgnored() {
+        DeviceFaultState state = state();
+        FaultDescriptor[] descriptors = {fault("Bit 0"), null, fault("Bit 2")};
+
+        state.begin();
+        state.reportWord(-1L, descriptors);
+        state.end(0);
+        assertEquals(0b11L, state.getActive());
+        assertSame(descriptors[0], state.getFault(0));
+        assertSame(descriptors[2], state.getFault(1));
+    }
+
+    @Test
+    void eachWordTableKeepsItsMapping() {
+        DeviceFaultState state = state();
+        // Fill every bit, so each time a word is mapped again its fault is counted as another
+        FaultDescriptor[] known = new FaultDescriptor[DeviceFaultState.OTHER_FAULTS_BIT];
+        for (int i = 0; i < known.length; i++) {
+            known[i] = fault("Known " + i);
+        }
+        check(state, 0, known);
+        FaultDescriptor[] first = {fault("First")};
+        FaultDescriptor[] second = {fault("Second")};
+
+        for (int i = 1; i <= 10; i++) {
+            state.begin();
+            state.reportWord(1, first);
+            state.reportWord(1, second);
+            state.end(i);
+            assertEquals(1L << DeviceFaultState.OTHER_FAULTS_BIT, state.getActive());
+        }
+        assertEquals(2, state.getOtherReports());
+    }
+
+    @Test
+    void equalFaultsShareABitWhetherReportedAloneOrInAWord() {
+        DeviceFaultState state = state();
+        FaultDescriptor[] descriptors = {fault("Shared")};
+
+        state.begin();
+        state.reportWord(1, descriptors);
+        state.report(fault("Shared"));
+        state.end(0);
+        assertEquals(1L, state.getActive());
+    }
+
+    @Test
+    void faultsPastTheLastBitAreReportedAsOtherFaults() {
+        DeviceFaultState state = state();
+        FaultDescriptor[] faults = new FaultDescriptor[DeviceFaultState.OTHER_FAULTS_BIT + 5];
+        for (int i = 0; i < faults.length; i++) {
+            faults[i] = fault("Fault " + i);
+        }
+
+        check(state, 0, faults);
+        assertEquals(-1L, state.getActive());
+        assertEquals(DeviceFaultState.OTHER_FAULTS, state.getFault(DeviceFaultState.OTHER_FAULTS_BIT).kind);
+        assertEquals(5, state.getOtherReports());
+        for (int i = 0; i < DeviceFaultState.OTHER_FAULTS_BIT; i++) {
+            assertSame(faults[i], state.getFault(i));
+        }
+
+        // Known faults keep their bit, only the untracked ones raise the other faults bit
+        check(state, 1, faults[0]);
+        assertEquals(1L, state.getActive());
+        check(state, 2, faults[faults.length - 1]);
+        assertEquals(1L << DeviceFaultState.OTHER_FAULTS_BIT, state.getActive());
+        assertEquals(6, state.getOtherReports());
+    }
+}
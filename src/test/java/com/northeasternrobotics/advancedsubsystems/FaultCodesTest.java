@@ -0,0 +1,24 @@
+package com.northeasternrobotics.advancedsubsystems;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FaultCodesTest {
+    @Test
+    void faultNamedLikeTheOverflowCodeGetsItsOwnCode() {
+        int code = FaultCodes.faultCode("Other fault");
+        assertNotEquals(FaultCodes.OTHER_FAULT, code);
+        assertEquals(code, FaultCodes.faultCode("Other fault"));
+    }
+
+    @Test
+    void devicesNeverShareTheReservedIds() {
+        assertEquals(FaultCodes.NO_DEVICE, FaultCodes.deviceId(null));
+        int id = FaultCodes.deviceId("FaultCodesTest device");
+        assertNotEquals(FaultCodes.NO_DEVICE, id);
+        assertNotEquals(FaultCodes.OTHER_DEVICE, id);
+        assertEquals(id, FaultCodes.deviceId("FaultCodesTest device"));
+        assertNotEquals(FaultCodes.NO_DEVICE, FaultCodes.deviceId(""));
+    }
+}
@@ -0,0 +1,144 @@
+package com.northeasternrobotics.advancedsubsystems;
+
+import com.northeasternrobotics.advancedsubsystems.AdvancedSubsystem.SystemStatus;
+import edu.wpi.first.hal.HAL;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FaultEventQueueTest {
+    private static AdvancedSubsystem subsystem;
+
+    @BeforeAll
+    static void initialize() {
+        assertTrue(HAL.initialize(500, 0));
+        subsystem = new TestSubsystem("FaultEventQueueTest");
+    }
+
+    private static SubsystemFault fault(String description) {
+        return new SubsystemFault(new FaultDescriptor("Device", new FaultKind(description)), 0);
+    }
+
+    private static List<FaultListener> recordingTo(List<String> events) {
+        return List.of(new FaultListener() {
+            @Override
+            public void faultRaised(AdvancedSubsystem subsystem, SubsystemFault fault) {
+                events.add("raised " + fault.descriptor.kind.description);
+            }
+
+            @Override
+            public void faultCleared(AdvancedSubsystem subsystem, SubsystemFault fault) {
+                events.add("cleared " + fault.descriptor.kind.description);
+            }
+
+            @Override
+            public void statusChanged(AdvancedSubsystem subsystem, SystemStatus status) {
+                events.add("status " + status);
+            }
+        });
+    }
+
+    @Test
+    void deliversEventsInOrder() {
+        FaultEventQueue queue = new FaultEventQueue(8);
+        SubsystemFault fault = fault("A");
+        queue.faultRaised(fault);
+        queue.statusChanged(SystemStatus.ERROR);
+        queue.faultCleared(fault);
+
+        List<String> events = new ArrayList<>();
+        queue.dispatch(subsystem, recordingTo(events));
+        assertEquals(List.of("raised A", "status ERROR", "cleared A"), events);
+
+        events.clear();
+        queue.dispatch(subsystem, recordingTo(events));
+        assertTrue(events.isEmpty());
+    }
+
+    @Test
+    void capacityIsRoundedUpToAPowerOfTwo() {
+        FaultEventQueue queue = new FaultEventQueue(5);
+        for (int i = 0; i < 10; i++) {
+            queue.faultRaised(fault("Fault " + i));
+        }
+
+        List<String> events = new ArrayList<>();
+        queue.dispatch(subsystem, recordingTo(events));
+        assertEquals(8, events.stream().filter(event -> event.startsWith("raised")).count());
+    }
+
+    @Test
+    void eventsPastCapacityAreDroppedUntilTheQueueDrains() {
+        FaultEventQueue queue = new FaultEventQueue(4);
+        for (int i = 0; i < 6; i++) {
+            queue.faultRaised(fault("Fault " + i));
+        }
+
+        List<String> events = new ArrayList<>();
+        queue.dispatch(subsystem, recordingTo(events));
+        // Followed by a resync with the subsystem's current faults, of which there are none
+        assertEquals(List.of("raised Fault 0", "raised Fault 1", "raised Fault 2", "raised Fault 3", "status OK"),
+                events);
+
+        // The slots are reused once drained, across the end of the ring
+        events.clear();
+        for (int i = 6; i < 9; i++) {
+            queue.faultRaised(fault("Fault " + i));
+        }
+        queue.dispatch(subsystem, recordingTo(events));
+        assertEquals(List.of("raised Fault 6", "raised Fault 7", "raised Fault 8"), events);
+    }
+
+    @Test
+    void droppedEventsAreFollowedByTheCurrentFaults() {
+        AdvancedSubsystem faulted = new TestSubsystem("FaultEventQueueTestFaulted");
+        faulted.addFault("Current fault");
+        FaultEventQueue queue = new FaultEventQueue(2);
+        for (int i = 0; i < 3; i++) {
+            queue.faultRaised(fault("Fault " + i));
+        }
+
+        List<String> resyncs = new ArrayList<>();
+        queue.dispatch(faulted, List.of(new FaultListener() {
+            @Override
+            public void resynced(AdvancedSubsystem subsystem, List<SubsystemFault> faults, SystemStatus status) {
+                resyncs.add(faults.size() + " " + faults.get(0).description + " " + status);
+            }
+        }));
+        assertEquals(List.of("1 Current fault ERROR"), resyncs);
+
+        // Only once per overflow
+        resyncs.clear();
+        queue.faultRaised(fault("Fault 3"));
+        queue.dispatch(faulted, List.of(new FaultListener() {
+            @Override
+            public void resynced(AdvancedSubsystem subsystem, List<SubsystemFault> faults, SystemStatus status) {
+                resyncs.add("resynced");
+            }
+        }));
+        assertTrue(resyncs.isEmpty());
+    }
+
+    @Test
+    void failingListenerDoesNotStopDelivery() {
+        FaultEventQueue queue = new FaultEventQueue(4);
+        queue.faultRaised(fault("A"));
+        queue.faultRaised(fault("B"));
+
+        List<String> events = new ArrayList<>();
+        List<FaultListener> listeners = new ArrayList<>();
+        listeners.add(new FaultListener() {
+            @Override
+            public void faultRaised(AdvancedSubsystem subsystem, SubsystemFault fault) {
+                throw new IllegalStateException("Listener failure");
+            }
+        });
+        listeners.addAll(recordingTo(events));
+        queue.dispatch(subsystem, listeners);
+        assertEquals(List.of("raised A", "raised B"), events);
+    }
+}
@@ -0,0 +1,174 @@
+package com.northeasternrobotics.advancedsubsystems;
+
+import com.northeasternrobotics.advancedsubsystems.selfcheck.FaultSink;
+import com.northeasternrobotics.advancedsubsystems.selfcheck.SelfChecking;
+import edu.wpi.first.hal.HAL;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FaultRecorderTest {
+    // Exact in binary and in microseconds, so recorded times replay to the same doubles
+    private static final double CYCLE_PERIOD = 0.125;
+    private static final int CYCLES = 400;
+
+    @BeforeAll
+    static void initialize() {
+        assertTrue(HAL.initialize(500, 0));
+    }
+
+    @Test
+    void replayReproducesTheRecordedFaultTimeline() throws IOException {
+        AdvancedSubsystem recordedSubsystem = subsystem();
+        List<String> recorded = timeline(recordedSubsystem);
+        ScriptedDevice device = new ScriptedDevice();
+        MonitoredDevice monitored = new MonitoredDevice(recordedSubsystem, device, CYCLE_PERIOD);
+
+        ByteArrayOutputStream file = new ByteArrayOutputStream();
+        FaultRecorder recorder = FaultRecorder.start(file, false);
+        int checks = 0;
+        for (int i = 0; i < CYCLES; i++) {
+            double timestamp = i * CYCLE_PERIOD;
+            recorder.writeCycle(timestamp);
+            recordedSubsystem.beginChecks(timestamp);
+            device.script(i);
+            // Not every cycle checks the device, like a device with a longer period than the loop
+            if (i % 3 != 2) {
+                recordedSubsystem.checkDevice(monitored, timestamp);
+                checks++;
+            }
+            recordedSubsystem.endChecks();
+            recordedSubsystem.dispatchFaultEvents();
+        }
+        FaultRecorder.stop();
+        assertFalse(FaultRecorder.isRecording());
+
+        AdvancedSubsystem replayedSubsystem = subsystem();
+        List<String> replayed = timeline(replayedSubsystem);
+        long replayedChecks = FaultReplay.replay(new ByteArrayInputStream(file.toByteArray()),
+                List.of(replayedSubsystem));
+
+        assertEquals(checks, replayedChecks);
+        assertTrue(recorded.size() > 10, "The script should raise and clear faults, got " + recorded);
+        assertEquals(recorded, replayed);
+        assertEquals(recordedSubsystem.getSystemStatus(), replayedSubsystem.getSystemStatus());
+        assertEquals(recordedSubsystem.getFaults(), replayedSubsystem.getFaults());
+    }
+
+    @Test
+    void checksPastAFullBufferAreDroppedUntilTheyAreWritten() throws IOException {
+        AdvancedSubsystem subsystem = subsystem();
+        MonitoredDevice monitored = new MonitoredDevice(subsystem, new ScriptedDevice(), CYCLE_PERIOD);
+
+        ByteArrayOutputStream file = new ByteArrayOutputStream();
+        FaultRecorder recorder = FaultRecorder.start(file, false);
+        for (int i = 0; i < FaultRecorder.CAPACITY + 100; i++) {
+            subsystem.checkDevice(monitored, i * CYCLE_PERIOD);
+        }
+        recorder.write();
+        for (int i = 0; i < 100; i++) {
+            subsystem.checkDevice(monitored, (FaultRecorder.CAPACITY + 100 + i) * CYCLE_PERIOD);
+        }
+        FaultRecorder.stop();
+
+        assertEquals(FaultRecorder.CAPACITY + 100, FaultReplay.replay(new ByteArrayInputStream(file.toByteArray()),
+                List.of(subsystem())));
+    }
+
+    @Test
+    void replayedChecksAreNotRecorded() throws IOException {
+        AdvancedSubsystem subsystem = subsystem();
+        MonitoredDevice monitored = new MonitoredDevice(subsystem, new ScriptedDevice(), CYCLE_PERIOD);
+        ByteArrayOutputStream first = new ByteArrayOutputStream();
+        FaultRecorder recorder = FaultRecorder.start(first, false);
+        for (int i = 0; i < 10; i++) {
+            subsystem.checkDevice(monitored, i * CYCLE_PERIOD);
+        }
+        FaultRecorder.stop();
+
+        ByteArrayOutputStream second = new ByteArrayOutputStream();
+        recorder = FaultRecorder.start(second, false);
+        assertEquals(10, FaultReplay.replay(new ByteArrayInputStream(first.toByteArray()), List.of(subsystem())));
+        recorder.write();
+        FaultRecorder.stop();
+
+        assertEquals(0, FaultReplay.replay(new ByteArrayInputStream(second.toByteArray()), List.of(subsystem())));
+    }
+
+    @Test
+    void replayRejectsOtherFiles() {
+        byte[] notARecording = {'P', 'N', 'G', 0, 1, 2, 3};
+        assertThrows(IOException.class, () -> FaultReplay.replay(new ByteArrayInputStream(notARecording), List.of()));
+    }
+
+    private static AdvancedSubsystem subsystem() {
+        return new TestSubsystem("RecorderRoundTrip");
+    }
+
+    private static List<String> timeline(AdvancedSubsystem subsystem) {
+        List<String> events = new ArrayList<>();
+        subsystem.addFaultListener(new FaultListener() {
+            @Override
+            public void faultRaised(AdvancedSubsystem subsystem, SubsystemFault fault) {
+                events.add("raised " + fault.description + " at " + fault.timestamp);
+            }
+
+            @Override
+            public void faultCleared(AdvancedSubsystem subsystem, SubsystemFault fault) {
+                events.add("cleared " + fault.description + " last seen " + fault.getLastSeen());
+            }
+
+            @Override
+            public void statusChanged(AdvancedSubsystem subsystem, AdvancedSubsystem.SystemStatus status) {
+                events.add("status " + status);
+            }
+        });
+        return events;
+    }
+
+    // Reports a word of faults, one of them debounced, and a fault on its own
+    private static final class ScriptedDevice implements SelfChecking {
+        private final FaultDescriptor[] table = {
+                new FaultDescriptor("Scripted", new FaultKind("Overheating", true)),
+                new FaultDescriptor("Scripted", new FaultKind("Flapping", false).withDebounce(2, 3, 0.5)),
+                null,
+                new FaultDescriptor("Scripted", new FaultKind("Hardware failure", false, true))};
+        private final FaultDescriptor error = new FaultDescriptor("Scripted", new FaultKind("CAN timeout", false));
+        private long bits;
+        private boolean errored;
+
+        void script(int cycle) {
+            bits = 0;
+            if (cycle >= 20 && cycle < 60) {
+                bits |= 1;
+            }
+            if ((cycle >= 100 && cycle < 120 && cycle % 2 == 0) || (cycle >= 150 && cycle < 200)) {
+                bits |= 2;
+            }
+            if (cycle == 300) {
+                bits |= 8;
+            }
+            errored = cycle == 70 || cycle == 71 || cycle == 250;
+        }
+
+        @Override
+        public void checkForFaults(FaultSink sink) {
+            sink.report(bits, table);
+            if (errored) {
+                sink.report(error);
+            }
+        }
+
+        @Override
+        public String getLabel() {
+            return "Scripted";
+        }
+    }
+}
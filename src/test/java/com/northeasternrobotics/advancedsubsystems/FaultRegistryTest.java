@@ -0,0 +1,167 @@
+package com.northeasternrobotics.advancedsubsystems;
+
+import com.northeasternrobotics.advancedsubsystems.AdvancedSubsystem.SystemStatus;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FaultRegistryTest {
+    private static FaultDescriptor fault(String description, boolean isWarning, boolean sticky) {
+        return new FaultDescriptor("Device", new FaultKind(description, isWarning, sticky));
+    }
+
+    private static FaultDescriptor fault(String description) {
+        return fault(description, false, false);
+    }
+
+    private static List<String> descriptions(FaultRegistry registry) {
+        List<String> descriptions = new ArrayList<>();
+        for (SubsystemFault fault : registry.getFaults()) {
+            descriptions.add(fault.descriptor.kind.description);
+        }
+        return descriptions;
+    }
+
+    @Test
+    void faultsExpireTimeoutAfterTheyWereLastSeen() {
+        FaultRegistry registry = new FaultRegistry(FaultRegistry.DEFAULT_CAPACITY);
+        FaultDescriptor a = fault("A");
+        FaultDescriptor b = fault("B");
+        registry.record(a, 0);
+        registry.record(b, 1);
+        registry.record(a, 5);
+
+        registry.removeExpired(FaultRegistry.FAULT_TIMEOUT + 1);
+        assertEquals(List.of("A"), descriptions(registry));
+        registry.removeExpired(FaultRegistry.FAULT_TIMEOUT + 4.9);
+        assertEquals(1, registry.size());
+        registry.removeExpired(FaultRegistry.FAULT_TIMEOUT + 5);
+        assertEquals(0, registry.size());
+        assertEquals(SystemStatus.OK, registry.getStatus());
+    }
+
+    @Test
+    void stickyFaultsNeverExpire() {
+        FaultRegistry registry = new FaultRegistry(FaultRegistry.DEFAULT_CAPACITY);
+        registry.record(fault("Sticky", false, true), 0);
+
+        registry.removeExpired(FaultRegistry.FAULT_TIMEOUT * 100);
+        assertEquals(List.of("Sticky"), descriptions(registry));
+    }
+
+    @Test
+    void reReportingMergesIntoTheRecordedFault() {
+        FaultRegistry registry = new FaultRegistry(FaultRegistry.DEFAULT_CAPACITY);
+        FaultDescriptor a = fault("A");
+        registry.record(a, 0);
+        int version = registry.getVersion();
+
+        // An equal descriptor is the same fault
+        registry.record(fault("A"), 1);
+        SubsystemFault recorded = registry.get(a);
+        assertEquals(2, recorded.getOccurrences());
+        assertEquals(1.0, recorded.getLastSeen());
+        assertEquals(0.0, recorded.timestamp);
+        assertEquals(version, registry.getVersion());
+        assertEquals(1, registry.size());
+    }
+
+    @Test
+    void listKeepsDetectionOrderAndIsOnlyRebuiltOnChange() {
+        FaultRegistry registry = new FaultRegistry(FaultRegistry.DEFAULT_CAPACITY);
+        registry.record(fault("A"), 0);
+        registry.record(fault("B"), 1);
+        registry.record(fault("C"), 2);
+        registry.record(fault("A"), 3);
+
+        List<SubsystemFault> faults = registry.getFaults();
+        assertEquals(List.of("A", "B", "C"), descriptions(registry));
+        assertSame(faults, registry.getFaults());
+        assertThrows(UnsupportedOperationException.class, () -> faults.add(faults.get(0)));
+
+        registry.removeExpired(1 + FaultRegistry.FAULT_TIMEOUT);
+        assertEquals(List.of("A", "C"), descriptions(registry));
+        assertNotSame(faults, registry.getFaults());
+    }
+
+    @Test
+    void fullRegistryEvictsTheLeastRecentlySeenFault() {
+        FaultRegistry registry = new FaultRegistry(3);
+        List<String> removed = new ArrayList<>();
+        registry.setListener(new FaultRegistry.Listener() {
+            @Override
+            public void added(SubsystemFault fault) {
+            }
+
+            @Override
+            public void removed(SubsystemFault fault) {
+                removed.add(fault.descriptor.kind.description);
+            }
+        });
+        registry.record(fault("A"), 0);
+        registry.record(fault("B"), 1);
+        registry.record(fault("C"), 2);
+        registry.record(fault("A"), 3);
+
+        registry.record(fault("D"), 4);
+        assertEquals(List.of("B"), removed);
+        assertEquals(List.of("A", "C", "D"), descriptions(registry));
+        assertEquals(3, registry.size());
+    }
+
+    @Test
+    void fullRegistryEvictsExpiredFaultsFirst() {
+        FaultRegistry registry = new FaultRegistry(2);
+        registry.record(fault("Sticky", false, true), 0);
+        registry.record(fault("Old"), 0);
+
+        registry.record(fault("New"), FaultRegistry.FAULT_TIMEOUT + 1);
+        assertEquals(List.of("Sticky", "New"), descriptions(registry));
+    }
+
+    @Test
+    void stickyFaultsAreOnlyEvictedWhenNothingElseCanBe() {
+        FaultRegistry registry = new FaultRegistry(2);
+        registry.record(fault("First", false, true), 0);
+        registry.record(fault("Second", false, true), 1);
+
+        registry.record(fault("Third"), 2);
+        assertEquals(List.of("Second", "Third"), descriptions(registry));
+        registry.record(fault("Fourth", false, true), 3);
+        assertEquals(List.of("Second", "Fourth"), descriptions(registry));
+    }
+
+    @Test
+    void removingAFaultWorksForStickyFaults() {
+        FaultRegistry registry = new FaultRegistry(FaultRegistry.DEFAULT_CAPACITY);
+        FaultDescriptor sticky = fault("Sticky", false, true);
+        registry.record(sticky, 0);
+        registry.record(fault("Other"), 0);
+
+        registry.remove(fault("Sticky", false, true));
+        assertEquals(List.of("Other"), descriptions(registry));
+        registry.remove(sticky);
+        assertEquals(1, registry.size());
+        assertEquals(1, registry.getErrorCount());
+    }
+
+    @Test
+    void statusIsTheWorstRecordedFault() {
+        FaultRegistry registry = new FaultRegistry(FaultRegistry.DEFAULT_CAPACITY);
+        assertEquals(SystemStatus.OK, registry.getStatus());
+        registry.record(fault("Warning", true, false), 0);
+        assertEquals(SystemStatus.WARNING, registry.getStatus());
+        registry.record(fault("Error"), 0);
+        assertEquals(SystemStatus.ERROR, registry.getStatus());
+        assertEquals(1, registry.getWarningCount());
+        assertEquals(1, registry.getErrorCount());
+
+        registry.clear();
+        assertEquals(SystemStatus.OK, registry.getStatus());
+        assertEquals(0, registry.size());
+        assertTrue(registry.getFaults().isEmpty());
+    }
+}
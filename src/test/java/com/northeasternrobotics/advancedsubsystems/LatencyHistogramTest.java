@@ -0,0 +1,91 @@
+package com.northeasternrobotics.advancedsubsystems;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LatencyHistogramTest {
+    @Test
+    void emptyHistogramReportsZero() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        assertEquals(0.0, histogram.percentile(0.5));
+        assertEquals(0, histogram.getCount());
+        assertEquals(0, histogram.getMax());
+    }
+
+    @Test
+    void percentilesAreWithinABucketOfTheTruth() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (long nanos = 1; nanos <= 100_000; nanos++) {
+            histogram.record(nanos, Long.MAX_VALUE);
+        }
+
+        for (double quantile : new double[]{0.01, 0.1, 0.5, 0.9, 0.99}) {
+            double exact = quantile * 100_000;
+            double estimate = histogram.percentile(quantile);
+            // Never under, and over by at most the width of one bucket
+            assertTrue(estimate >= exact && estimate <= exact * 1.25,
+                    "p" + quantile + " was " + estimate + ", expected about " + exact);
+        }
+        assertEquals(100_000.0, histogram.percentile(1.0));
+    }
+
+    @Test
+    void percentilesNeverExceedTheMax() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int i = 0; i < 100; i++) {
+            histogram.record(1000, Long.MAX_VALUE);
+        }
+        assertEquals(1000.0, histogram.percentile(0.5));
+        assertEquals(1000.0, histogram.percentile(0.99));
+    }
+
+    @Test
+    void valuesNextToABucketBoundaryLandOnEitherSide() {
+        // 1024ns starts a bucket, 1023ns ends the one before it
+        LatencyHistogram below = new LatencyHistogram();
+        below.record(1023, Long.MAX_VALUE);
+        below.record(5000, Long.MAX_VALUE);
+        assertEquals(1024.0, below.percentile(0.5));
+
+        LatencyHistogram at = new LatencyHistogram();
+        at.record(1024, Long.MAX_VALUE);
+        at.record(5000, Long.MAX_VALUE);
+        assertEquals(1280.0, at.percentile(0.5));
+    }
+
+    @Test
+    void durationsPastTheLastBucketAreKeptInIt() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(0, Long.MAX_VALUE);
+        histogram.record(Long.MAX_VALUE, Long.MAX_VALUE);
+
+        assertEquals(2, histogram.getCount());
+        assertEquals((double) Long.MAX_VALUE, histogram.percentile(1.0));
+    }
+
+    @Test
+    void countsDurationsOverBudget() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(100, 100);
+        histogram.record(101, 100);
+        histogram.record(5, 1);
+
+        assertEquals(2, histogram.getOverBudget());
+        assertEquals(3, histogram.getCount());
+    }
+
+    @Test
+    void windowMaxOnlyCoversTheCurrentWindow() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(5000, Long.MAX_VALUE);
+        histogram.record(10, Long.MAX_VALUE);
+        assertEquals(5000, histogram.getWindowMax());
+
+        histogram.resetWindowMax();
+        assertEquals(0, histogram.getWindowMax());
+        histogram.record(10, Long.MAX_VALUE);
+        assertEquals(10, histogram.getWindowMax());
+        assertEquals(5000, histogram.getMax());
+    }
+}
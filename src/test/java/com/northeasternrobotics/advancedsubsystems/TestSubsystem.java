@@ -0,0 +1,20 @@
+package com.northeasternrobotics.advancedsubsystems;
+
+import edu.wpi.first.wpilibj2.command.CommandBase;
+import edu.wpi.first.wpilibj2.command.Commands;
+
+/**
+ * A subsystem with no system check whose periodic callback never runs, so tests drive its checks
+ * directly. Needs the HAL to be initialized.
+ */
+final class TestSubsystem extends AdvancedSubsystem {
+    TestSubsystem(String name) {
+        super((callback, period) -> {
+        }, name);
+    }
+
+    @Override
+    protected CommandBase systemCheckCommand() {
+        return Commands.none();
+    }
+}